@@ -0,0 +1,116 @@
+package jpa.jpashop.benchmark;
+
+import jpa.jpashop.JpashopApplication;
+import jpa.jpashop.SyntheticDataGenerator;
+import jpa.jpashop.domain.Address;
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.service.ItemService;
+import jpa.jpashop.service.MemberService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/*
+벤치마크 공통 준비 코드
+트라이얼마다 새 인메모리 H2로 애플리케이션 컨텍스트를 띄움
+조회 벤치마크의 대량 데이터는 synthetic 프로필의 SyntheticDataGenerator로 적재하고,
+쓰기 벤치마크에 필요한 소량의 회원/상품은 서비스 계층을 통해 만듦
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    // 커맨드라인 인자로 넘겨야 application.yml 설정보다 우선 적용됨 (extraArgs로 벤치마크별 설정 추가)
+    public static ConfigurableApplicationContext startContext(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";LOCK_TIMEOUT=10000",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--logging.level.org.hibernate.type=warn"
+        ));
+        args.addAll(List.of(extraArgs));
+
+        return new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    /*
+    synthetic 프로필로 기동해서 SyntheticDataGenerator가 application.yml의 jpashop.synthetic 설정(Zipf 분포, 주문 줄 수, 주문 기간 등)으로 데이터를 적재
+    규모(회원/상품/주문 수)만 벤치마크별로 덮어쓰고, 적재 시간은 생성기 로그로 남김 (적재 시간 자체는 SyntheticDataLoadBenchmark에서 측정)
+    빈 DB에 적재하므로 회원 id는 1 ~ members, 상품 id는 1 ~ items
+     */
+    public static ConfigurableApplicationContext startSyntheticContext(int members, int items, int orders) {
+        return startContext(
+                "--spring.profiles.active=synthetic",
+                "--jpashop.synthetic.members=" + members,
+                "--jpashop.synthetic.items=" + items,
+                "--jpashop.synthetic.orders=" + orders,
+                "--logging.level." + SyntheticDataGenerator.class.getName() + "=info");
+    }
+
+    // 컨텍스트의 jpashop.synthetic 설정으로 생성기를 하나 더 만들되 규모만 덮어씀 (기동 시 적재와 별개로 generate()를 직접 호출할 때 사용)
+    public static SyntheticDataGenerator syntheticDataGenerator(ConfigurableApplicationContext context, int members, int items, int orders) {
+        Environment env = context.getEnvironment();
+        return new SyntheticDataGenerator(
+                context.getBean(JdbcTemplate.class),
+                members,
+                env.getRequiredProperty("jpashop.synthetic.categories", Integer.class),
+                items,
+                orders,
+                env.getRequiredProperty("jpashop.synthetic.max-order-lines", Integer.class),
+                env.getRequiredProperty("jpashop.synthetic.zipf-exponent", Double.class),
+                env.getRequiredProperty("jpashop.synthetic.order-days", Integer.class),
+                env.getRequiredProperty("jpashop.synthetic.batch-size", Integer.class),
+                env.getRequiredProperty("jpashop.synthetic.index-member-names", Boolean.class),
+                env.getRequiredProperty("jpashop.synthetic.seed", Long.class));
+    }
+
+    public static List<Long> createMembers(ConfigurableApplicationContext context, String namePrefix, int count) {
+        MemberService memberService = context.getBean(MemberService.class);
+        List<Long> memberIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Address address = new Address("Seoul", "Teheran-ro", "12345");
+            memberIds.add(memberService.join(new MemberDto(namePrefix + i, address)));
+        }
+        return memberIds;
+    }
+
+    public static List<Long> createBooks(ConfigurableApplicationContext context, int count, int stock) {
+        ItemService itemService = context.getBean(ItemService.class);
+        List<Long> itemIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.setName("Book" + i);
+            book.setPrice(10000 + i);
+            book.setStock(stock);
+            itemService.saveItem(book);
+            itemIds.add(book.getId());
+        }
+        return itemIds;
+    }
+
+    public static List<OrderItemDto> cart(List<Long> itemIds, int count) {
+        List<OrderItemDto> cart = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            OrderItemDto dto = new OrderItemDto();
+            dto.setItemId(itemId);
+            dto.setCount(count);
+            cart.add(dto);
+        }
+        return cart;
+    }
+
+}
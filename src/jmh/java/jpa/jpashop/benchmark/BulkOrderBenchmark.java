@@ -0,0 +1,65 @@
+package jpa.jpashop.benchmark;
+
+import jpa.jpashop.dto.BulkOrderResultDto;
+import jpa.jpashop.dto.OrderRequestDto;
+import jpa.jpashop.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+주문 N건 저장: OrderService.order를 N번 호출 vs bulkOrder 한 번 호출 (JDBC batch)
+결과(호출 한 번 = 주문 batchSize건)를 batchSize로 나누면 주문 한 건당 시간
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BulkOrderBenchmark {
+
+    @Param({"100", "1000"})
+    int batchSize;
+
+    ConfigurableApplicationContext context;
+    OrderService orderService;
+    List<OrderRequestDto> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        orderService = context.getBean(OrderService.class);
+
+        List<Long> memberIds = BenchmarkSupport.createMembers(context, "member", 100);
+        List<Long> itemIds = BenchmarkSupport.createBooks(context, 100, Integer.MAX_VALUE / 2);
+
+        requests = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            Long itemId = itemIds.get(i % itemIds.size());
+            requests.add(new OrderRequestDto(memberIds.get(i % memberIds.size()), BenchmarkSupport.cart(List.of(itemId), 1)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int orderInLoop() {
+        for (OrderRequestDto request : requests) {
+            orderService.order(request.getMemberId(), request.getOrderItems());
+        }
+        return requests.size();
+    }
+
+    @Benchmark
+    public List<BulkOrderResultDto> bulkOrder() {
+        return orderService.bulkOrder(requests);
+    }
+
+}
@@ -0,0 +1,70 @@
+package jpa.jpashop.benchmark;
+
+import jpa.jpashop.domain.PooledLoSequenceGenerator;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.metrics.SqlStatementCounter;
+import jpa.jpashop.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+id 채번 방식에 따른 주문 생성 비용
+incrementSize=1 이면 persist마다 시퀀스를 호출하던 기존 방식과 같음
+보조 카운터 statements / orders 가 주문 한 건당 DB로 보낸 SQL 수 (JDBC 배치로 묶인 INSERT는 한 번으로 셈)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class IdAllocationBenchmark {
+
+    @Param({"1", "50"})
+    int incrementSize;
+
+    @Param({"1", "10"})
+    int cartSize;
+
+    ConfigurableApplicationContext context;
+    OrderService orderService;
+    Long memberId;
+    List<OrderItemDto> cart;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long orders;
+        public long statements;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startContext(
+                "--spring.jpa.properties." + PooledLoSequenceGenerator.DEFAULT_INCREMENT_SIZE_SETTING + "=" + incrementSize,
+                "--spring.jpa.properties." + PooledLoSequenceGenerator.INCREMENT_SIZE_SETTING_PREFIX + "order_item_seq=" + incrementSize);
+        orderService = context.getBean(OrderService.class);
+
+        memberId = BenchmarkSupport.createMembers(context, "member", 1).get(0);
+        List<Long> itemIds = BenchmarkSupport.createBooks(context, cartSize, Integer.MAX_VALUE / 2);
+        cart = BenchmarkSupport.cart(itemIds, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long order(RoundTrips roundTrips) {
+        long before = SqlStatementCounter.current();
+        Long orderId = orderService.order(memberId, cart);
+        roundTrips.statements += SqlStatementCounter.current() - before;
+        roundTrips.orders++;
+        return orderId;
+    }
+
+}
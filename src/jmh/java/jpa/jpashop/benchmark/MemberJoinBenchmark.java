@@ -0,0 +1,49 @@
+package jpa.jpashop.benchmark;
+
+import jpa.jpashop.domain.Address;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.service.MemberService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+회원 가입: 기존 회원 수에 따른 MemberService.join 비용 (중복 이름 검사 + 이름 검색 색인 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MemberJoinBenchmark {
+
+    @Param({"0", "10000"})
+    int existingMembers;
+
+    ConfigurableApplicationContext context;
+    MemberService memberService;
+    Address address;
+    long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        memberService = context.getBean(MemberService.class);
+        address = new Address("Seoul", "Teheran-ro", "12345");
+
+        BenchmarkSupport.createMembers(context, "existing", existingMembers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long join() {
+        return memberService.join(new MemberDto("bench" + sequence++, address));
+    }
+
+}
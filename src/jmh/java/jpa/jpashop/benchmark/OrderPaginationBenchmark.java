@@ -0,0 +1,83 @@
+package jpa.jpashop.benchmark;
+
+import jpa.jpashop.dto.OrderCursor;
+import jpa.jpashop.dto.OrderDto;
+import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+깊은 페이지 조회: offset/limit vs 키셋(커서)
+offset 방식은 페이지가 깊어질수록 앞쪽 행을 읽고 버리는 비용이 커지고, 키셋 방식은 페이지 번호와 무관하게 일정해야 함
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OrderPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int MAX_PAGE = 10_000;
+
+    @Param({"1", "1000", "10000"})
+    int page;
+
+    ConfigurableApplicationContext context;
+    OrderRepository orderRepository;
+    TransactionTemplate readOnlyTx;
+    OrderSearchDto offsetCond;
+    OrderSearchDto cursorCond;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startSyntheticContext(100, 100, PAGE_SIZE * MAX_PAGE);
+        orderRepository = context.getBean(OrderRepository.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+
+        offsetCond = new OrderSearchDto();
+        offsetCond.setLimit(PAGE_SIZE);
+        offsetCond.setOffset((long) (page - 1) * PAGE_SIZE);
+
+        cursorCond = new OrderSearchDto();
+        cursorCond.setLimit(PAGE_SIZE);
+        cursorCond.setCursor(cursorBefore(page));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OrderDto> offset() {
+        return readOnlyTx.execute(status -> orderRepository.findOrderDtos(offsetCond));
+    }
+
+    @Benchmark
+    public List<OrderDto> keyset() {
+        return readOnlyTx.execute(status -> orderRepository.findOrderDtos(cursorCond));
+    }
+
+    // 요청한 페이지 바로 앞 행의 커서 (첫 페이지는 커서 없이 조회)
+    private String cursorBefore(int page) {
+        if (page == 1) {
+            return null;
+        }
+
+        OrderSearchDto lastRowOfPreviousPage = new OrderSearchDto();
+        lastRowOfPreviousPage.setOffset((long) (page - 1) * PAGE_SIZE - 1);
+        lastRowOfPreviousPage.setLimit(1);
+        List<OrderDto> row = readOnlyTx.execute(status -> orderRepository.findOrderDtos(lastRowOfPreviousPage));
+        return OrderCursor.next(row, 1);
+    }
+
+}
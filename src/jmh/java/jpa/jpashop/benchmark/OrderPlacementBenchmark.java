@@ -0,0 +1,50 @@
+package jpa.jpashop.benchmark;
+
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+주문 생성: 장바구니 크기에 따른 OrderService.order 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OrderPlacementBenchmark {
+
+    @Param({"1", "10", "50"})
+    int cartSize;
+
+    ConfigurableApplicationContext context;
+    OrderService orderService;
+    Long memberId;
+    List<OrderItemDto> cart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        orderService = context.getBean(OrderService.class);
+
+        memberId = BenchmarkSupport.createMembers(context, "member", 1).get(0);
+        List<Long> itemIds = BenchmarkSupport.createBooks(context, cartSize, Integer.MAX_VALUE / 2);
+        cart = BenchmarkSupport.cart(itemIds, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long order() {
+        return orderService.order(memberId, cart);
+    }
+
+}
@@ -0,0 +1,67 @@
+package jpa.jpashop.benchmark;
+
+import jpa.jpashop.dto.OrderDto;
+import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+주문 검색: 엔티티 조회(페치 조인 + batch size) vs DTO 직접 조회
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OrderSearchBenchmark {
+
+    @Param({"1000", "10000"})
+    int orderCount;
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    ConfigurableApplicationContext context;
+    OrderRepository orderRepository;
+    TransactionTemplate readOnlyTx;
+    OrderSearchDto searchCond;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startSyntheticContext(100, 100, orderCount);
+        orderRepository = context.getBean(OrderRepository.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+
+        searchCond = new OrderSearchDto();
+        searchCond.setLimit(pageSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 응답 DTO까지 변환해야 지연 로딩되는 주문 상품 조회 비용이 포함됨
+    @Benchmark
+    public List<OrderDto> entityFetchJoin() {
+        return readOnlyTx.execute(status -> orderRepository.findBySearchCond(searchCond)
+                .stream()
+                .map(OrderDto::new)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<OrderDto> dtoProjection() {
+        return readOnlyTx.execute(status -> orderRepository.findBySearchCondV2(searchCond));
+    }
+
+}
@@ -0,0 +1,45 @@
+package jpa.jpashop.benchmark;
+
+import jpa.jpashop.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+synthetic 데이터 적재 시간: SyntheticDataGenerator.generate() 한 번 (JDBC 배치 INSERT + 시퀀스 재시작)
+조회 벤치마크들이 이 생성기로 데이터를 준비하므로, 주문 규모에 따라 준비 비용이 어떻게 늘어나는지 따로 측정
+회원/상품 수는 application.yml의 synthetic 기본값 비율(주문 3 : 회원 1 : 상품 0.5)을 따름
+측정마다 새 컨텍스트를 띄우고, 기동 시 적재는 최소 규모로 줄여서 측정 대상 적재와 섞이지 않게 함
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class SyntheticDataLoadBenchmark {
+
+    @Param({"30000", "300000"})
+    int orders;
+
+    ConfigurableApplicationContext context;
+    SyntheticDataGenerator generator;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        context = BenchmarkSupport.startSyntheticContext(1, 1, 0);
+        generator = BenchmarkSupport.syntheticDataGenerator(context, orders / 3, orders / 6, orders);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void generate() {
+        generator.generate();
+    }
+
+}
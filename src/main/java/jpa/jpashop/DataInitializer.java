@@ -1,62 +1,58 @@
 package jpa.jpashop;
 
-import jpa.jpashop.domain.*;
+import jpa.jpashop.domain.Address;
 import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.service.ItemService;
+import jpa.jpashop.service.MemberService;
+import jpa.jpashop.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityManager;
+import java.util.List;
 
+/*
+샘플 데이터도 실제 요청과 같은 서비스 계층을 거쳐서 생성
+재고 차감, 이름 검색 색인, 주문 요약/아웃박스 반영 경로가 하나뿐이므로 초기 데이터와 운영 데이터가 어긋나지 않음
+ */
 @Component
+@Profile("!synthetic") // 대량 데이터는 SyntheticDataGenerator가 생성
 @RequiredArgsConstructor
 public class DataInitializer {
 
-    private final EntityManager em;
+    private final MemberService memberService;
+    private final ItemService itemService;
+    private final OrderService orderService;
 
     @EventListener(ApplicationReadyEvent.class)
-    @Transactional
     public void init() {
-        Member memberA = new Member();
-        memberA.setName("userA");
-        memberA.setAddress(new Address("CityA", "StreetA", "12345"));
-        em.persist(memberA);
+        Long memberAId = memberService.join(new MemberDto("userA", new Address("CityA", "StreetA", "12345")));
+        Long memberBId = memberService.join(new MemberDto("userB", new Address("CityB", "StreetB", "12345")));
 
-        Member memberB = new Member();
-        memberB.setName("userB");
-        memberB.setAddress(new Address("CityB", "StreetB", "12345"));
-        em.persist(memberB);
+        Book bookA = createBook("BookA", 10000, 100);
+        Book bookB = createBook("BookB", 20000, 100);
 
-        Book bookA = new Book();
-        bookA.setName("BookA");
-        bookA.setPrice(10000);
-        bookA.setStock(100);
-        em.persist(bookA);
-
-        Book bookB = new Book();
-        bookB.setName("BookB");
-        bookB.setPrice(20000);
-        bookB.setStock(100);
-        em.persist(bookB);
-
-        OrderItem orderItemA1 = OrderItem.createOrderItem(bookA, 10000, 1);
-        OrderItem orderItemA2 = OrderItem.createOrderItem(bookB, 20000, 2);
-
-        Delivery deliveryA = new Delivery();
-        deliveryA.setAddress(memberA.getAddress());
-
-        Order orderA = Order.createOrder(memberA, deliveryA, orderItemA1, orderItemA2);
-        em.persist(orderA);
-
-        OrderItem orderItemB1 = OrderItem.createOrderItem(bookA, 10000, 3);
-        OrderItem orderItemB2 = OrderItem.createOrderItem(bookB, 20000, 4);
+        orderService.order(memberAId, List.of(orderItem(bookA, 1), orderItem(bookB, 2)));
+        orderService.order(memberBId, List.of(orderItem(bookA, 3), orderItem(bookB, 4)));
+    }
 
-        Delivery deliveryB = new Delivery();
-        deliveryB.setAddress(memberB.getAddress());
+    private Book createBook(String name, int price, int stock) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStock(stock);
+        itemService.saveItem(book);
+        return book;
+    }
 
-        Order orderB = Order.createOrder(memberB, deliveryB, orderItemB1, orderItemB2);
-        em.persist(orderB);
+    private OrderItemDto orderItem(Book book, int count) {
+        OrderItemDto orderItemDto = new OrderItemDto();
+        orderItemDto.setItemId(book.getId());
+        orderItemDto.setCount(count);
+        return orderItemDto;
     }
 }
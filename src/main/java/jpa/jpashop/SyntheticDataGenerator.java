@@ -0,0 +1,289 @@
+package jpa.jpashop;
+
+import jpa.jpashop.domain.DeliveryStatus;
+import jpa.jpashop.domain.MemberNameGram;
+import jpa.jpashop.domain.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+부하 테스트용 대량 데이터 생성기 (synthetic 프로필에서만 동작, 이 프로필에서는 DataInitializer가 동작하지 않음)
+회원, 카테고리, 상품(Book, Album, Movie), 주문/배송/주문상품을 JDBC 배치 INSERT로 적재함 (엔티티 persist, 영속성 컨텍스트, 2차 캐시를 거치지 않음)
+상품 인기도와 회원별 주문 수는 Zipf 분포를 따르므로 소수의 상품/회원에 주문이 몰림
+같은 seed면 같은 데이터가 만들어짐
+
+id는 각 테이블의 현재 최대값 다음부터 직접 채번하고, 끝나면 엔티티 시퀀스를 그 뒤로 재시작해서 이후 JPA INSERT와 겹치지 않게 함
+(애플리케이션이 기동 직후 아무것도 저장하기 전에 실행된다는 전제)
+
+실행 예: --spring.profiles.active=synthetic --jpashop.synthetic.members=1000000 --jpashop.synthetic.orders=3000000
+ */
+@Slf4j
+@Component
+@Profile("synthetic")
+public class SyntheticDataGenerator {
+
+    private static final String[] ITEM_TYPES = {"B", "A", "M"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int memberCount;
+    private final int categoryCount;
+    private final int itemCount;
+    private final int orderCount;
+    private final int maxOrderLines;
+    private final double zipfExponent;
+    private final int orderDays;
+    private final int batchSize;
+    private final boolean indexMemberNames;
+    private final long seed;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  @Value("${jpashop.synthetic.members:100000}") int memberCount,
+                                  @Value("${jpashop.synthetic.categories:200}") int categoryCount,
+                                  @Value("${jpashop.synthetic.items:50000}") int itemCount,
+                                  @Value("${jpashop.synthetic.orders:300000}") int orderCount,
+                                  @Value("${jpashop.synthetic.max-order-lines:5}") int maxOrderLines,
+                                  @Value("${jpashop.synthetic.zipf-exponent:1.0}") double zipfExponent,
+                                  @Value("${jpashop.synthetic.order-days:365}") int orderDays,
+                                  @Value("${jpashop.synthetic.batch-size:1000}") int batchSize,
+                                  @Value("${jpashop.synthetic.index-member-names:true}") boolean indexMemberNames,
+                                  @Value("${jpashop.synthetic.seed:42}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memberCount = memberCount;
+        this.categoryCount = categoryCount;
+        this.itemCount = itemCount;
+        this.orderCount = orderCount;
+        this.maxOrderLines = maxOrderLines;
+        this.zipfExponent = zipfExponent;
+        this.orderDays = orderDays;
+        this.batchSize = batchSize;
+        this.indexMemberNames = indexMemberNames;
+        this.seed = seed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void generate() {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        long memberBase = maxId("member", "member_id");
+        long categoryBase = maxId("category", "category_id");
+        long itemBase = maxId("item", "item_id");
+
+        insertMembers(memberBase);
+        insertCategories(categoryBase, random);
+        int[] prices = insertItems(itemBase, categoryBase, random);
+        insertOrders(memberBase, itemBase, prices, random);
+
+        log.info("synthetic 데이터 생성 완료: 회원 {}, 카테고리 {}, 상품 {}, 주문 {} ({} ms)",
+                memberCount, categoryCount, itemCount, orderCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void insertMembers(long memberBase) {
+        long gramId = maxId("member_name_gram", "member_name_gram_id");
+        List<Object[]> members = new ArrayList<>(batchSize);
+        List<Object[]> grams = new ArrayList<>();
+
+        for (int i = 1; i <= memberCount; i++) {
+            long memberId = memberBase + i;
+            String name = "member" + memberId;
+            members.add(new Object[]{memberId, name, "City" + (i % 100), "Street" + (i % 1000), String.format("%05d", i % 100000)});
+
+            if (indexMemberNames) {
+                for (String gram : MemberNameGram.indexGrams(name)) {
+                    grams.add(new Object[]{++gramId, memberId, gram});
+                }
+            }
+
+            if (members.size() == batchSize) {
+                flushMembers(members, grams);
+            }
+        }
+        flushMembers(members, grams);
+
+        restartSequence("member_seq", memberBase + memberCount);
+        restartSequence("member_name_gram_seq", gramId);
+    }
+
+    private void flushMembers(List<Object[]> members, List<Object[]> grams) {
+        flush("insert into member (member_id, name, city, street, zipcode) values (?, ?, ?, ?, ?)", members);
+        flush("insert into member_name_gram (member_name_gram_id, member_id, gram) values (?, ?, ?)", grams);
+    }
+
+    // 앞쪽 1/10은 최상위 카테고리, 나머지는 그중 하나의 하위 카테고리
+    private void insertCategories(long categoryBase, SplittableRandom random) {
+        int rootCount = Math.max(1, categoryCount / 10);
+        List<Object[]> categories = new ArrayList<>(batchSize);
+
+        for (int i = 1; i <= categoryCount; i++) {
+            Long parentId = i <= rootCount ? null : categoryBase + 1 + random.nextInt(rootCount);
+            categories.add(new Object[]{categoryBase + i, "Category" + i, parentId});
+
+            if (categories.size() == batchSize) {
+                flush("insert into category (category_id, name, parent_id) values (?, ?, ?)", categories);
+            }
+        }
+        flush("insert into category (category_id, name, parent_id) values (?, ?, ?)", categories);
+
+        restartSequence("category_seq", categoryBase + categoryCount);
+    }
+
+    // 주문 금액 계산에 쓰도록 상품 가격을 돌려줌 (인덱스 = 상품 순번 - 1)
+    private int[] insertItems(long itemBase, long categoryBase, SplittableRandom random) {
+        int[] prices = new int[itemCount];
+        List<Object[]> items = new ArrayList<>(batchSize);
+        List<Object[]> categoryItems = new ArrayList<>(batchSize);
+
+        for (int i = 1; i <= itemCount; i++) {
+            long itemId = itemBase + i;
+            String dtype = ITEM_TYPES[i % ITEM_TYPES.length];
+            int price = (1 + random.nextInt(100)) * 1000;
+            prices[i - 1] = price;
+
+            // 부하 중 재고 부족으로 주문이 실패하지 않도록 재고는 넉넉하게
+            items.add(new Object[]{
+                    dtype, itemId, itemName(dtype, i), price, 1_000_000,
+                    "B".equals(dtype) ? "Author" + (i % 5000) : null,
+                    "B".equals(dtype) ? String.format("978%010d", itemId) : null,
+                    "A".equals(dtype) ? "Artist" + (i % 5000) : null,
+                    null,
+                    "M".equals(dtype) ? "Director" + (i % 5000) : null,
+                    "M".equals(dtype) ? "Actor" + (i % 5000) : null
+            });
+            categoryItems.add(new Object[]{categoryBase + 1 + random.nextInt(categoryCount), itemId});
+
+            if (items.size() == batchSize) {
+                flushItems(items, categoryItems);
+            }
+        }
+        flushItems(items, categoryItems);
+
+        restartSequence("item_seq", itemBase + itemCount);
+        return prices;
+    }
+
+    private void flushItems(List<Object[]> items, List<Object[]> categoryItems) {
+        flush("insert into item (dtype, item_id, name, price, stock, author, isbn, artist, etc, director, actor)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", items);
+        flush("insert into category_item (category_id, item_id) values (?, ?)", categoryItems);
+    }
+
+    private void insertOrders(long memberBase, long itemBase, int[] prices, SplittableRandom random) {
+        long orderId = maxId("orders", "order_id");
+        long deliveryId = maxId("delivery", "delivery_id");
+        long orderItemId = maxId("order_item", "order_item_id");
+
+        ZipfSampler itemSampler = new ZipfSampler(itemCount, zipfExponent);
+        ZipfSampler memberSampler = new ZipfSampler(memberCount, zipfExponent);
+        LocalDateTime now = LocalDateTime.now();
+        long orderSeconds = orderDays * 86_400L;
+
+        List<Object[]> deliveries = new ArrayList<>(batchSize);
+        List<Object[]> orders = new ArrayList<>(batchSize);
+        List<Object[]> orderItems = new ArrayList<>(batchSize * maxOrderLines);
+
+        for (int i = 0; i < orderCount; i++) {
+            long memberId = memberBase + 1 + memberSampler.sample(random);
+            // 최근 주문일수록 아직 배송 전(READY)이고, 일부는 취소된 주문
+            long ageSeconds = random.nextLong(orderSeconds);
+            LocalDateTime orderDate = now.minusSeconds(ageSeconds);
+            DeliveryStatus deliveryStatus = ageSeconds < 3 * 86_400L ? DeliveryStatus.READY : DeliveryStatus.COMPLETE;
+            OrderStatus orderStatus = random.nextInt(20) == 0 ? OrderStatus.CANCEL : OrderStatus.ORDER;
+
+            deliveries.add(new Object[]{++deliveryId, "City" + (memberId % 100), "Street" + (memberId % 1000),
+                    String.format("%05d", memberId % 100000), deliveryStatus.name()});
+
+            int totalPrice = 0;
+            int lines = 1 + random.nextInt(maxOrderLines);
+            for (int line = 0; line < lines; line++) {
+                int itemIndex = itemSampler.sample(random);
+                int count = 1 + random.nextInt(3);
+                totalPrice += prices[itemIndex] * count;
+                orderItems.add(new Object[]{++orderItemId, itemBase + 1 + itemIndex, orderId + 1, prices[itemIndex], count});
+            }
+            orders.add(new Object[]{++orderId, memberId, deliveryId, orderDate, orderStatus.name(), totalPrice});
+
+            if (orders.size() == batchSize) {
+                flushOrders(deliveries, orders, orderItems);
+            }
+        }
+        flushOrders(deliveries, orders, orderItems);
+
+        restartSequence("orders_seq", orderId);
+        restartSequence("delivery_seq", deliveryId);
+        restartSequence("order_item_seq", orderItemId);
+    }
+
+    private void flushOrders(List<Object[]> deliveries, List<Object[]> orders, List<Object[]> orderItems) {
+        flush("insert into delivery (delivery_id, city, street, zipcode, status) values (?, ?, ?, ?, ?)", deliveries);
+        flush("insert into orders (order_id, member_id, delivery_id, order_date, status, total_price) values (?, ?, ?, ?, ?, ?)", orders);
+        flush("insert into order_item (order_item_id, item_id, order_id, order_price, count) values (?, ?, ?, ?, ?)", orderItems);
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+        rows.clear();
+    }
+
+    private long maxId(String table, String idColumn) {
+        Long max = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private void restartSequence(String sequence, long lastId) {
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (lastId + 1));
+    }
+
+    private static String itemName(String dtype, int i) {
+        switch (dtype) {
+            case "B":
+                return "Book" + i;
+            case "A":
+                return "Album" + i;
+            default:
+                return "Movie" + i;
+        }
+    }
+
+    /*
+    Zipf 분포 샘플러: 순위 k(0부터)가 뽑힐 확률이 1 / (k + 1)^exponent 에 비례
+    누적 분포를 미리 계산해두고 이진 탐색으로 뽑음
+     */
+    static class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double sum = 0;
+            for (int k = 0; k < size; k++) {
+                sum += 1 / Math.pow(k + 1, exponent);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < size; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            int rank = index >= 0 ? index : -index - 1;
+            return Math.min(rank, cumulative.length - 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package jpa.jpashop.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ORDER_SEARCH = "orderSearch";
+
+    /*
+    애플리케이션 레벨 결과 캐시 (엔티티 단위의 Hibernate 2차 캐시와는 별개)
+    TransactionAwareCacheManagerProxy로 감싸서 @CacheEvict가 트랜잭션 커밋 이후에만 반영되도록 함
+    recordStats()로 수집한 적중률은 /actuator/metrics/cache.gets?tag=name:orderSearch 로 확인
+    enabled=false면 캐시 없이 매번 조회 (테스트는 롤백된 데이터의 결과가 다른 테스트로 새지 않도록 기본으로 끔)
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${jpashop.cache.order-search.enabled:true}") boolean enabled,
+                                     @Value("${jpashop.cache.order-search.max-size:1000}") long maxSize,
+                                     @Value("${jpashop.cache.order-search.max-staleness:0s}") Duration maxStaleness) {
+        if (!enabled) {
+            return new NoOpCacheManager();
+        }
+
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats();
+
+        if (!maxStaleness.isZero()) {
+            caffeine.expireAfterWrite(maxStaleness);
+        }
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ORDER_SEARCH);
+        cacheManager.setCaffeine(caffeine);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+}
@@ -0,0 +1,53 @@
+package jpa.jpashop.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/*
+jpashop.datasource.replica.jdbc-url이 설정된 경우에만 읽기/쓰기 DataSource를 분리함
+primary는 기존 spring.datasource.* 설정을 그대로 사용하고, replica는 jpashop.datasource.replica.* (HikariConfig 속성)로 설정
+라우팅은 커넥션을 얻는 시점의 트랜잭션 속성으로 결정되므로 spring.jpa.open-in-view가 켜져 있으면 시작하지 않음
+(OSIV는 요청 내내 EntityManager와 커넥션을 유지하기 때문에 readOnly 조회 뒤의 쓰기 트랜잭션이 replica 커넥션으로 실행됨)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jpashop.datasource.replica", name = "jdbc-url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("jpashop.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 @Value("${jpashop.datasource.replica-retry-interval:5s}") Duration retryInterval,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("replica 라우팅을 사용하려면 spring.jpa.open-in-view=false 로 설정해야 합니다.");
+        }
+
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, retryInterval));
+    }
+
+}
@@ -0,0 +1,28 @@
+package jpa.jpashop.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpa.jpashop.service.FileOutboxSink;
+import jpa.jpashop.service.LoggingOutboxSink;
+import jpa.jpashop.service.OutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    // 다른 OutboxSink 빈(메시지 브로커 연동 등)을 등록하면 그쪽을 사용. 없으면 파일 경로가 있을 때 파일, 아니면 로그로 내보냄
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    public OutboxSink outboxSink(@Value("${jpashop.outbox.sink.file:}") String file, ObjectMapper objectMapper) {
+        if (StringUtils.hasText(file)) {
+            return new FileOutboxSink(Path.of(file), objectMapper);
+        }
+        return new LoggingOutboxSink();
+    }
+
+}
@@ -0,0 +1,99 @@
+package jpa.jpashop.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/*
+readOnly 트랜잭션은 replica, 나머지는 primary 커넥션을 사용하는 DataSource
+트랜잭션 시작 시점이 아니라 첫 SQL 실행 시점에 커넥션을 얻어야 readOnly 여부를 알 수 있으므로 LazyConnectionDataSourceProxy로 감싸서 사용함
+replica 커넥션을 얻지 못하면 retryInterval 동안은 replica를 건너뛰고 primary로 읽음
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryIntervalNanos;
+
+    private volatile boolean replicaDown;
+    private volatile long replicaDownSince;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration retryInterval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryIntervalNanos = retryInterval.toNanos();
+    }
+
+    /*
+    read-your-writes: 방금 커밋한 데이터를 복제 지연 없이 바로 읽어야 하는 조회는 이 안에서 호출하면 readOnly 트랜잭션이라도 primary로 감
+    라우팅을 쓰지 않는 환경에서는 아무 영향이 없음
+     */
+    public static <T> T readFromPrimary(Supplier<T> query) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!useReplica()) {
+            return primary.getConnection();
+        }
+
+        try {
+            Connection connection = replica.getConnection();
+            replicaDown = false;
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            markReplicaDown(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!useReplica()) {
+            return primary.getConnection(username, password);
+        }
+
+        try {
+            Connection connection = replica.getConnection(username, password);
+            replicaDown = false;
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            markReplicaDown(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    private boolean useReplica() {
+        if (FORCE_PRIMARY.get() != null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        return !replicaDown || System.nanoTime() - replicaDownSince >= retryIntervalNanos;
+    }
+
+    private void markReplicaDown(Exception e) {
+        if (!replicaDown) {
+            log.warn("replica 커넥션 획득 실패, primary로 대신 조회합니다.", e);
+        }
+        replicaDownSince = System.nanoTime();
+        replicaDown = true;
+    }
+
+}
@@ -0,0 +1,37 @@
+package jpa.jpashop.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /*
+    Hibernate 2차 캐시 영역별 적중(hit)/미스(miss)/적재(put)/제거(eviction) 통계를 Micrometer 지표로 등록
+    /actuator/metrics/cache.gets?tag=name:item 처럼 영역 이름으로 조회해서 운영 환경의 캐시 크기를 조정할 때 사용
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory emf) {
+        return registry -> {
+            RegionFactory regionFactory = emf.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+            if (!(regionFactory instanceof JCacheRegionFactory)) {
+                return; // 2차 캐시를 끈 환경
+            }
+
+            CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+            for (String cacheName : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName), Tags.of("cache.layer", "hibernate-l2"));
+            }
+        };
+    }
+
+}
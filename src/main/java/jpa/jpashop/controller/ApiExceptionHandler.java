@@ -0,0 +1,22 @@
+package jpa.jpashop.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+서비스/DTO가 잘못된 요청 값(조회 건수 범위, 커서 형식, 일괄 취소 조건 등)에 던지는 IllegalArgumentException을 400으로 변환
+sendError로 넘겨서 @ResponseStatus 예외와 같은 기본 오류 응답 형식을 그대로 사용함
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public void handleIllegalArgument(IllegalArgumentException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+    }
+
+}
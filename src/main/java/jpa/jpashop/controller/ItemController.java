@@ -0,0 +1,38 @@
+package jpa.jpashop.controller;
+
+import jpa.jpashop.controller.response.Response;
+import jpa.jpashop.controller.response.SliceResponse;
+import jpa.jpashop.dto.ItemCursor;
+import jpa.jpashop.dto.ItemDto;
+import jpa.jpashop.dto.ItemSearchDto;
+import jpa.jpashop.service.ItemService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/items")
+public class ItemController {
+
+    private final ItemService itemService;
+
+    // 예: GET /items?itemType=BOOK&minPrice=10000&maxPrice=30000&inStockOnly=true&limit=20&cursor=...
+    @GetMapping
+    public SliceResponse<List<ItemDto>> findCatalog(@ModelAttribute ItemSearchDto itemSearchDto) {
+        List<ItemDto> itemList = itemService.findCatalog(itemSearchDto);
+        return new SliceResponse<>(itemList, ItemCursor.next(itemList, itemSearchDto.getLimit()));
+    }
+
+    // 카탈로그 스냅샷이 켜져 있으면 DB 조회 없이 응답
+    @GetMapping("/{itemId}")
+    public Response<ItemDto> findItem(@PathVariable("itemId") Long itemId) {
+        return new Response<>(itemService.findCatalogItem(itemId));
+    }
+
+}
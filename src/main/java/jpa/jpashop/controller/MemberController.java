@@ -1,9 +1,14 @@
 package jpa.jpashop.controller;
 
 import jpa.jpashop.controller.response.Response;
+import jpa.jpashop.controller.response.SliceResponse;
 import jpa.jpashop.domain.Address;
+import jpa.jpashop.dto.MemberCursor;
 import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.dto.OrderCursor;
+import jpa.jpashop.dto.OrderDto;
 import jpa.jpashop.service.MemberService;
+import jpa.jpashop.service.OrderService;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +23,7 @@ import java.util.List;
 public class MemberController {
 
     private final MemberService memberService;
+    private final OrderService orderService;
 
     @PostMapping
     public Response<CreateMemberResponse> createMember(@RequestBody @Valid MemberDto memberDto) {
@@ -25,10 +31,21 @@ public class MemberController {
         return new Response<>(new CreateMemberResponse(id));
     }
 
+    // 회원 id 키셋 페이징. 응답의 nextCursor를 다음 요청의 cursor로 넘김
     @GetMapping
-    public Response<List<MemberDto>> findAllMembers() {
-        List<MemberDto> memberDtoList = memberService.findMembers();
-        return new Response<>(memberDtoList);
+    public SliceResponse<List<MemberDto>> findMembers(@RequestParam(value = "cursor", required = false) String cursor,
+                                                      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        List<MemberDto> memberDtoList = memberService.findMembers(cursor, limit);
+        return new SliceResponse<>(memberDtoList, MemberCursor.next(memberDtoList, limit));
+    }
+
+    // 회원의 주문 이력은 Member.orders 대신 이 API로 페이지 단위로만 조회
+    @GetMapping("/{memberId}/orders")
+    public SliceResponse<List<OrderDto>> findOrderHistory(@PathVariable("memberId") Long memberId,
+                                                          @RequestParam(value = "cursor", required = false) String cursor,
+                                                          @RequestParam(value = "limit", defaultValue = "20") long limit) {
+        List<OrderDto> orderList = orderService.findOrderHistory(memberId, cursor, limit);
+        return new SliceResponse<>(orderList, OrderCursor.next(orderList, limit));
     }
 
     @PutMapping("/{memberId}")
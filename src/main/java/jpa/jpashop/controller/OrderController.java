@@ -1,15 +1,32 @@
 package jpa.jpashop.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jpa.jpashop.controller.response.Response;
+import jpa.jpashop.controller.response.SliceResponse;
+import jpa.jpashop.dto.BulkCancelRequestDto;
+import jpa.jpashop.dto.BulkCancelResultDto;
+import jpa.jpashop.dto.BulkOrderResultDto;
+import jpa.jpashop.dto.OrderCursor;
 import jpa.jpashop.dto.OrderDto;
+import jpa.jpashop.dto.OrderRequestDto;
 import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.dto.OrderSummaryDto;
+import jpa.jpashop.service.IdempotentOrderService;
 import jpa.jpashop.service.OrderService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -17,12 +34,74 @@ import java.util.List;
 @RequestMapping("/orders")
 public class OrderController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final OrderService orderService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public Response<List<OrderDto>> findAllOrders(@RequestBody OrderSearchDto orderSearchDto) {
+    public SliceResponse<List<OrderDto>> findAllOrders(@RequestBody OrderSearchDto orderSearchDto) {
         List<OrderDto> orderList = orderService.searchOrder(orderSearchDto);
-        return new Response<>(orderList);
+        return new SliceResponse<>(orderList, OrderCursor.next(orderList, orderSearchDto.getLimit()));
+    }
+
+    // Idempotency-Key 헤더가 있으면 같은 키로 재시도해도 주문은 한 번만 생성되고 처음 주문의 id를 돌려줌 (같은 키로 내용이 다른 주문을 보내면 422)
+    @PostMapping
+    public Response<CreateOrderResponse> order(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                               @RequestBody OrderRequestDto orderRequest) {
+        Long orderId = idempotencyKey == null
+                ? orderService.order(orderRequest.getMemberId(), orderRequest.getOrderItems())
+                : idempotentOrderService.order(idempotencyKey, orderRequest.getMemberId(), orderRequest.getOrderItems());
+        return new Response<>(new CreateOrderResponse(orderId));
+    }
+
+    // order_summary 읽기 모델 검색 (조건과 커서는 GET /orders와 같음)
+    @GetMapping("/summaries")
+    public SliceResponse<List<OrderSummaryDto>> findOrderSummaries(@RequestBody OrderSearchDto orderSearchDto) {
+        List<OrderSummaryDto> summaryList = orderService.searchOrderSummaries(orderSearchDto);
+        String nextCursor = OrderCursor.next(summaryList, orderSearchDto.getLimit(), OrderSummaryDto::getOrderDate, OrderSummaryDto::getOrderId);
+        return new SliceResponse<>(summaryList, nextCursor);
+    }
+
+    @PostMapping("/bulk")
+    public Response<List<BulkOrderResultDto>> bulkOrder(@RequestBody List<OrderRequestDto> orderRequestList) {
+        List<BulkOrderResultDto> results = orderService.bulkOrder(orderRequestList);
+        return new Response<>(results);
+    }
+
+    // 주문 id 목록 또는 검색 조건으로 일괄 취소. 배송 완료 등으로 취소하지 못한 주문은 skipped에 이유와 함께 담김
+    @PostMapping("/cancel")
+    public Response<BulkCancelResultDto> cancelOrders(@RequestBody BulkCancelRequestDto cancelRequest) {
+        BulkCancelResultDto result = cancelRequest.hasOrderIds()
+                ? orderService.cancelOrders(cancelRequest.getOrderIds())
+                : orderService.cancelOrders(cancelRequest.getSearchCond() == null ? new OrderSearchDto() : cancelRequest.getSearchCond());
+        return new Response<>(result);
+    }
+
+    // 주문 전체를 한 줄에 하나씩 JSON으로 내려보냄 (NDJSON). 응답 전체를 메모리에 만들지 않고 청크 단위로 바로 소켓에 씀
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void exportOrders(@RequestBody OrderSearchDto orderSearchDto, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        ServletOutputStream out = response.getOutputStream();
+
+        orderService.exportOrders(orderSearchDto, chunk -> {
+            try {
+                for (OrderDto orderDto : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(orderDto));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CreateOrderResponse {
+        private Long orderId;
     }
 
 }
@@ -0,0 +1,11 @@
+package jpa.jpashop.controller.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SliceResponse<T> {
+    private T data;
+    private String nextCursor;
+}
@@ -2,6 +2,9 @@ package jpa.jpashop.domain;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 
@@ -10,7 +13,9 @@ import javax.persistence.*;
 public class Delivery {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "delivery_seq")
+    @GenericGenerator(name = "delivery_seq", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "delivery_seq"))
     @Column(name = "delivery_id")
     private Long id;
 
@@ -0,0 +1,39 @@
+package jpa.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/*
+주문 요청 멱등 키
+키를 기본 키로 두어 같은 키는 한 행만 존재함. order_id가 비어 있으면 아직 처리 중인 요청
+request_hash는 키를 처음 선점한 요청(회원, 주문 상품)의 해시. 같은 키로 다른 내용을 보내면 원래 주문 id를 돌려주지 않고 거절함
+행 저장/조회는 IdempotencyKeyRepository가 JDBC로 직접 처리하고, 엔티티는 테이블 정의용
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "idempotency_key")
+public class IdempotencyKey {
+
+    public static final int MAX_LENGTH = 100;
+
+    // SHA-256 다이제스트의 Base64 길이
+    public static final int REQUEST_HASH_LENGTH = 44;
+
+    @Id
+    @Column(name = "idempotency_key", length = MAX_LENGTH)
+    private String key;
+
+    @Column(name = "request_hash", length = REQUEST_HASH_LENGTH)
+    private String requestHash;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,81 @@
+package jpa.jpashop.domain;
+
+import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import javax.persistence.*;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/*
+회원 이름 n-gram 색인
+이름의 길이 1 ~ 3 부분 문자열을 한 행씩 저장해두고, 부분 일치 검색을 gram 컬럼의 인덱스 조회로 바꿔줌
+(leading wildcard LIKE '%keyword%'는 인덱스를 타지 못해 회원 테이블 전체를 스캔함)
+ */
+@Entity
+@Getter
+@Table(name = "member_name_gram", indexes = {
+        @Index(name = "idx_member_name_gram_gram", columnList = "gram, member_id"),
+        @Index(name = "idx_member_name_gram_member", columnList = "member_id")
+})
+public class MemberNameGram {
+
+    public static final int MAX_GRAM_LENGTH = 3;
+
+    @Id
+    @GeneratedValue(generator = "member_name_gram_seq")
+    @GenericGenerator(name = "member_name_gram_seq", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "member_name_gram_seq"))
+    @Column(name = "member_name_gram_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id")
+    private Member member;
+
+    @Column(length = MAX_GRAM_LENGTH)
+    private String gram;
+
+    protected MemberNameGram() {
+    }
+
+    public MemberNameGram(Member member, String gram) {
+        this.member = member;
+        this.gram = gram;
+    }
+
+    // 색인할 gram: 이름에 포함된 길이 1 ~ 3의 모든 부분 문자열
+    public static Set<String> indexGrams(String name) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (name == null) {
+            return grams;
+        }
+
+        for (int length = 1; length <= MAX_GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= name.length(); i++) {
+                grams.add(name.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    /*
+    검색어를 포함하는 이름이 반드시 가지고 있어야 하는 gram
+    3자 이하면 검색어 자체가 하나의 gram이고, 그보다 길면 검색어의 모든 3-gram (이 경우 후보만 걸러지므로 LIKE로 한 번 더 확인 필요)
+     */
+    public static Set<String> searchGrams(String keyword) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (keyword.length() <= MAX_GRAM_LENGTH) {
+            grams.add(keyword);
+            return grams;
+        }
+
+        for (int i = 0; i + MAX_GRAM_LENGTH <= keyword.length(); i++) {
+            grams.add(keyword.substring(i, i + MAX_GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+}
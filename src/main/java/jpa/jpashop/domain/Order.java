@@ -2,6 +2,9 @@ package jpa.jpashop.domain;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -9,11 +12,21 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // 키셋 페이징의 정렬/seek 조건인 (order_date, order_id)와 일치하는 인덱스
+        @Index(name = "idx_orders_order_date_id", columnList = "order_date, order_id"),
+        // 회원별 주문 이력 페이징, 회원 이름 검색 (n-gram 서브쿼리로 찾은 member_id IN 조건)
+        @Index(name = "idx_orders_member_date_id", columnList = "member_id, order_date, order_id"),
+        // 상태 검색 (+ 주문 일시 범위). 등호 조건 뒤에 정렬 컬럼이 이어져서 정렬 없이 limit까지만 읽음
+        @Index(name = "idx_orders_status_date_id", columnList = "status, order_date, order_id")
+})
 @Getter @Setter
 public class Order {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(generator = "orders_seq")
+    @GenericGenerator(name = "orders_seq", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "orders_seq"))
     @Column(name = "order_id")
     private Long id;
 
@@ -33,6 +46,14 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
+    // 주문 총 가격 (비정규화). 주문 상품이 추가될 때 함께 갱신되므로 조회 시 orderItems를 로딩하지 않아도 됨
+    private int totalPrice;
+
+    /*
+    Member.orders는 mappedBy 쪽(연관관계의 주인이 아닌) 컬렉션이라, 아직 로딩되지 않은 상태에서 add() 하면
+    Hibernate가 컬렉션을 초기화하지 않고 추가 작업만 큐에 쌓아둠 (회원의 과거 주문 전체를 읽어오지 않음)
+    size(), contains(), 순회처럼 컬렉션을 초기화하는 호출은 여기서 하면 안 됨
+     */
     public void setMember(Member member) {
         this.member = member;
         member.getOrders().add(this);
@@ -41,6 +62,7 @@ public class Order {
     public void addOrderItem(OrderItem orderItem) {
         orderItems.add(orderItem);
         orderItem.setOrder(this);
+        this.totalPrice += orderItem.getTotalPrice();
     }
 
     public void setDelivery(Delivery delivery) {
@@ -66,22 +88,21 @@ public class Order {
         return order;
     }
 
-    // 주문 취소
+    /*
+    주문 취소 (상태만 변경). 이미 취소된 주문은 다시 취소할 수 없음
+    재고는 여기서 복구하지 않음. 동시 주문과 갱신이 유실되지 않도록 OrderService.cancelOrder/cancelOrders가
+    ItemRepository의 원자적 UPDATE로 복구하므로, 주문 취소는 반드시 OrderService를 거쳐야 재고가 맞음
+     */
     public void cancelOrder() {
+        if (status == OrderStatus.CANCEL) {
+            throw new IllegalStateException("이미 취소된 주문입니다.");
+        }
+
         if (delivery.getStatus() == DeliveryStatus.COMPLETE) {
             throw new IllegalStateException("이미 배송 완료된 주문은 취소가 불가능합니다.");
         }
 
         this.setStatus(OrderStatus.CANCEL);
-
-        for (OrderItem orderItem : orderItems) {
-            orderItem.cancelOrderItem();
-        }
-    }
-
-    // 주문 총 가격 조회
-    public int getTotalPrice() {
-        return orderItems.stream().mapToInt(OrderItem::getTotalPrice).sum();
     }
 
 }
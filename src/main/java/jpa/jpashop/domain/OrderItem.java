@@ -3,14 +3,24 @@ package jpa.jpashop.domain;
 import jpa.jpashop.domain.item.Item;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 
 @Entity
+@Table(name = "order_item", indexes = {
+        // 주문 id 목록으로 주문 상품을 모아 조회 (fillOrderItems, 일괄 취소 재고 복구). item_id까지 포함해서 테이블을 읽지 않고 끝냄
+        @Index(name = "idx_order_item_order_item", columnList = "order_id, item_id")
+})
 @Getter @Setter
 public class OrderItem {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(generator = "order_item_seq")
+    @GenericGenerator(name = "order_item_seq", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_item_seq"))
     @Column(name = "order_item_id")
     private Long id;
 
@@ -26,27 +36,23 @@ public class OrderItem {
 
     private int count;
 
-    // createOrderItem()으로만 엔티티를 생성하기 때문에 생성자는 protected 으로 전환
+    // createReservedOrderItem()으로만 엔티티를 생성하기 때문에 생성자는 protected 으로 전환
     protected OrderItem() {
     }
 
-    // 주문 상품 생성
-    public static OrderItem createOrderItem(Item item, int orderPrice, int count) {
+    /*
+    주문 상품 생성 - 재고가 이미 DB에서 원자적으로 차감(예약)된 경우
+    재고 변경은 ItemRepository의 원자적 UPDATE로만 하므로 엔티티에는 재고를 바꾸는 메서드를 두지 않음
+     */
+    public static OrderItem createReservedOrderItem(Item item, int orderPrice, int count) {
         OrderItem orderItem = new OrderItem();
         orderItem.setItem(item);
         orderItem.setOrderPrice(orderPrice);
         orderItem.setCount(count);
 
-        item.decreaseStock(count);
-
         return orderItem;
     }
 
-    // 주문 상품 취소
-    public void cancelOrderItem() {
-        this.item.increaseStock(count);
-    }
-
     // 주문 상품 총 가격 조회
     public int getTotalPrice() {
         return this.orderPrice * this.count;
@@ -0,0 +1,47 @@
+package jpa.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/*
+주문 검색용 읽기 모델 (주문 한 건당 한 행)
+회원 이름, 배송지, 상태, 금액, 주문 상품 수를 미리 합쳐 두어서 검색이 orders/member/delivery 조인과 order_item 추가 조회 없이 단일 테이블 조회로 끝남
+원본 주문이 커밋된 뒤 OrderSummaryProjector가 갱신함 (FK 없이 값만 복사, 엔티티로는 조회만 하고 저장은 OrderSummaryRepository의 MERGE로만 함)
+회원 이름이 바뀌면 그 회원의 요약 행도 다시 계산함. 주소는 회원 주소가 아니라 주문 시점의 배송지라서 회원 주소 변경과는 무관함
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_date_id", columnList = "order_date, order_id"),
+        @Index(name = "idx_order_summary_status_date_id", columnList = "status, order_date, order_id"),
+        @Index(name = "idx_order_summary_member_date_id", columnList = "member_id, order_date, order_id")
+})
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+
+    private String memberName;
+
+    @Embedded
+    private Address address;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private int totalPrice;
+
+    private long itemCount;
+
+    private LocalDateTime orderDate;
+
+}
@@ -0,0 +1,63 @@
+package jpa.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/*
+트랜잭셔널 아웃박스
+주문과 같은 트랜잭션에서 저장되므로 주문이 커밋되면 메시지도 반드시 남고, 롤백되면 함께 사라짐
+외부 시스템 전달은 OutboxRelay가 커밋 이후 별도 스레드에서 배치로 처리함 (최소 한 번 전달, 수신 측은 id로 중복 제거)
+전달 순서는 생성 시각 순이지만 같은 주문의 메시지 순서까지 보장하지는 않음
+(서버마다 id를 블록 단위로 미리 확보하고, 여러 릴레이가 서로 다른 배치를 동시에 전달하므로)
+수신 측은 payload의 version(주문별 이벤트 순번)이 이미 반영한 값 이하인 메시지를 무시해서 순서가 뒤바뀌어도 최신 상태를 유지해야 함
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "outbox_message", indexes = {
+        // 릴레이가 생성 시각 순으로 선점할 때 정렬 없이 batch-size건까지만 읽음
+        @Index(name = "idx_outbox_message_created_id", columnList = "created_at, outbox_message_id")
+})
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(generator = "outbox_message_seq")
+    @GenericGenerator(name = "outbox_message_seq", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "outbox_message_seq"))
+    @Column(name = "outbox_message_id")
+    private Long id;
+
+    private String aggregateType;
+
+    private Long aggregateId;
+
+    private String eventType;
+
+    // 주문 상품 줄 수에 따라 길이가 정해지지 않으므로 크기 제한 없는 CLOB으로 저장
+    @Lob
+    private String payload;
+
+    private LocalDateTime createdAt;
+
+    public OutboxMessage(String aggregateType, Long aggregateId, String eventType, String payload) {
+        this(null, aggregateType, aggregateId, eventType, payload, LocalDateTime.now());
+    }
+
+    // 릴레이가 JDBC로 읽은 행을 그대로 담을 때 사용
+    public OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType, String payload, LocalDateTime createdAt) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+}
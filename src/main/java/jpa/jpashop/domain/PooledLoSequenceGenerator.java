@@ -0,0 +1,40 @@
+package jpa.jpashop.domain;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/*
+엔티티별 시퀀스 + pooled-lo 옵티마이저
+시퀀스를 한 번 호출할 때마다 increment_size개의 id를 메모리에서 나눠 쓰므로 persist마다 시퀀스 왕복이 생기지 않고, INSERT 배치도 끊기지 않음
+increment_size는 spring.jpa.properties.jpashop.id.* 로 시퀀스별로 조정 (시퀀스의 increment by 값과 같아야 하므로 운영 DB는 DDL도 함께 변경해야 함)
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "jpa.jpashop.domain.PooledLoSequenceGenerator";
+
+    public static final String DEFAULT_INCREMENT_SIZE_SETTING = "jpashop.id.default_increment_size";
+    public static final String INCREMENT_SIZE_SETTING_PREFIX = "jpashop.id.increment_size.";
+
+    private static final int DEFAULT_INCREMENT_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        Object incrementSize = settings.get(INCREMENT_SIZE_SETTING_PREFIX + params.getProperty(SEQUENCE_PARAM));
+        if (incrementSize == null) {
+            incrementSize = settings.get(DEFAULT_INCREMENT_SIZE_SETTING);
+        }
+
+        params.setProperty(INCREMENT_PARAM, incrementSize == null ? String.valueOf(DEFAULT_INCREMENT_SIZE) : incrementSize.toString());
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+
+}
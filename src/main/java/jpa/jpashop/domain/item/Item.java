@@ -1,9 +1,16 @@
 package jpa.jpashop.domain.item;
 
 import jpa.jpashop.domain.Category;
-import jpa.jpashop.exception.NotEnoughStockException;
+import jpa.jpashop.domain.PooledLoSequenceGenerator;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -11,15 +18,30 @@ import java.util.List;
 
 @Entity
 @Getter @Setter
+@Table(indexes = {
+        // 타입별 상품 목록: dtype 조건 + 가격 범위 + (price, item_id) 키셋 정렬을 한 인덱스로 처리
+        @Index(name = "idx_item_dtype_price_id", columnList = "dtype, price, item_id"),
+        // 타입 조건 없는 상품 목록
+        @Index(name = "idx_item_price_id", columnList = "price, item_id")
+})
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "dtype")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item") // Book, Album, Movie 모두 최상위 엔티티의 캐시 영역을 함께 사용
+@DynamicUpdate // 재고는 DB에서 원자적으로 바뀌므로, 이름/가격만 수정할 때 로딩 시점의 재고 값을 함께 UPDATE 하지 않도록 변경된 컬럼만 갱신
 public abstract class Item {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "item_seq")
+    @GenericGenerator(name = "item_seq", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "item_seq"))
     @Column(name = "item_id")
     private Long id;
 
+    // 구분 컬럼을 읽기 전용으로 매핑해서 목록 조회 시 조건/프로젝션에 그대로 사용 (값은 Hibernate가 @DiscriminatorValue로 채움)
+    @Column(name = "dtype", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String dtype;
+
     private String name;
 
     private int price;
@@ -29,18 +51,6 @@ public abstract class Item {
     @ManyToMany(mappedBy = "items")
     private List<Category> categories = new ArrayList<>();
 
-    public void increaseStock(int quantity) {
-        this.stock += quantity;
-    }
-
-    public void decreaseStock(int quantity) {
-        if (this.stock - quantity < 0) {
-            throw new NotEnoughStockException("재고는 0보다 낮을 수 없습니다.");
-        }
-
-        this.stock -= quantity;
-    }
-
     public void update(String name, int price, int stock) {
         setName(name);
         setPrice(price);
@@ -0,0 +1,26 @@
+package jpa.jpashop.domain.item;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+// 상품 하위 타입과 item.dtype 구분 값
+@Getter
+public enum ItemType {
+
+    BOOK("B"), ALBUM("A"), MOVIE("M");
+
+    private final String discriminator;
+
+    ItemType(String discriminator) {
+        this.discriminator = discriminator;
+    }
+
+    public static ItemType fromDiscriminator(String discriminator) {
+        return Arrays.stream(values())
+                .filter(t -> t.discriminator.equals(discriminator))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("알 수 없는 상품 타입입니다: " + discriminator));
+    }
+
+}
@@ -0,0 +1,22 @@
+package jpa.jpashop.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// 일괄 취소 요청. orderIds가 있으면 해당 주문들을, 없으면 searchCond에 해당하는 주문(ORDER 상태)을 모두 취소
+@Getter @Setter
+@NoArgsConstructor
+public class BulkCancelRequestDto {
+
+    private List<Long> orderIds;
+
+    private OrderSearchDto searchCond;
+
+    public boolean hasOrderIds() {
+        return orderIds != null && !orderIds.isEmpty();
+    }
+
+}
@@ -0,0 +1,36 @@
+package jpa.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class BulkCancelResultDto {
+
+    private final List<Long> canceledOrderIds = new ArrayList<>();
+
+    // 취소하지 않고 건너뛴 주문과 그 이유
+    private final List<Skipped> skipped = new ArrayList<>();
+
+    public void canceled(Long orderId) {
+        canceledOrderIds.add(orderId);
+    }
+
+    public void skipped(Long orderId, SkipReason reason) {
+        skipped.add(new Skipped(orderId, reason));
+    }
+
+    public enum SkipReason {
+        NOT_FOUND, ALREADY_CANCELED, DELIVERY_COMPLETE
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Skipped {
+        private Long orderId;
+        private SkipReason reason;
+    }
+
+}
@@ -0,0 +1,27 @@
+package jpa.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BulkOrderResultDto {
+
+    // 요청 목록에서의 순번
+    private int index;
+
+    private Long orderId;
+
+    private boolean success;
+
+    private String message;
+
+    public static BulkOrderResultDto success(int index, Long orderId) {
+        return new BulkOrderResultDto(index, orderId, true, null);
+    }
+
+    public static BulkOrderResultDto failure(int index, String message) {
+        return new BulkOrderResultDto(index, null, false, message);
+    }
+
+}
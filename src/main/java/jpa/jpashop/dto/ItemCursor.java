@@ -0,0 +1,50 @@
+package jpa.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/*
+상품 목록 키셋 페이징용 커서
+마지막으로 조회한 상품의 (price, itemId)를 담고, 클라이언트에는 불투명한 문자열로만 노출함
+ */
+@Getter
+@AllArgsConstructor
+public class ItemCursor {
+
+    private static final String DELIMITER = "|";
+
+    private final int price;
+
+    private final Long itemId;
+
+    public static String next(List<ItemDto> itemDtoList, long limit) {
+        if (itemDtoList.isEmpty() || itemDtoList.size() < limit) {
+            return null;
+        }
+
+        ItemDto last = itemDtoList.get(itemDtoList.size() - 1);
+        return new ItemCursor(last.getPrice(), last.getItemId()).encode();
+    }
+
+    public static ItemCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = decoded.lastIndexOf(DELIMITER);
+            int price = Integer.parseInt(decoded.substring(0, idx));
+            Long itemId = Long.valueOf(decoded.substring(idx + 1));
+            return new ItemCursor(price, itemId);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.", e);
+        }
+    }
+
+    public String encode() {
+        String raw = price + DELIMITER + itemId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,27 @@
+package jpa.jpashop.dto;
+
+import jpa.jpashop.domain.item.ItemType;
+import lombok.Getter;
+
+// 상품 목록 조회용 DTO (하위 타입별 컬럼은 제외). 카탈로그 스냅샷이 같은 인스턴스를 여러 요청에 그대로 돌려주므로 불변
+@Getter
+public class ItemDto {
+
+    private final Long itemId;
+
+    private final ItemType itemType;
+
+    private final String name;
+
+    private final int price;
+
+    private final int stock;
+
+    public ItemDto(Long itemId, String dtype, String name, int price, int stock) {
+        this.itemId = itemId;
+        this.itemType = ItemType.fromDiscriminator(dtype);
+        this.name = name;
+        this.price = price;
+        this.stock = stock;
+    }
+}
@@ -0,0 +1,27 @@
+package jpa.jpashop.dto;
+
+import jpa.jpashop.domain.item.ItemType;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class ItemSearchDto {
+
+    private ItemType itemType;
+
+    private Integer minPrice;
+
+    private Integer maxPrice;
+
+    private boolean inStockOnly;
+
+    private long limit = 20;
+
+    // 이전 응답의 nextCursor. (price, itemId) 기준 키셋 페이징
+    private String cursor;
+
+    public boolean hasCursor() {
+        return cursor != null && !cursor.isEmpty();
+    }
+
+}
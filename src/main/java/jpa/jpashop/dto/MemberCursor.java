@@ -0,0 +1,42 @@
+package jpa.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/*
+회원 목록 키셋 페이징용 커서
+마지막으로 조회한 회원의 memberId를 담고, 주문/상품 커서와 같이 클라이언트에는 불투명한 문자열로만 노출함
+ */
+@Getter
+@AllArgsConstructor
+public class MemberCursor {
+
+    private final Long memberId;
+
+    public static String next(List<MemberDto> memberDtoList, long limit) {
+        if (memberDtoList.isEmpty() || memberDtoList.size() < limit) {
+            return null;
+        }
+
+        MemberDto last = memberDtoList.get(memberDtoList.size() - 1);
+        return new MemberCursor(last.getId()).encode();
+    }
+
+    public static MemberCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new MemberCursor(Long.valueOf(decoded));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.", e);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(memberId).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
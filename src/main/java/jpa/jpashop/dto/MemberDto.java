@@ -13,9 +13,17 @@ import javax.validation.constraints.NotEmpty;
 @AllArgsConstructor
 public class MemberDto {
 
+    // 목록 조회 응답에서만 채워지며, 다음 페이지 커서로 사용
+    private Long id;
+
     @NotEmpty
     private String name;
 
     private Address address;
 
+    public MemberDto(String name, Address address) {
+        this.name = name;
+        this.address = address;
+    }
+
 }
@@ -0,0 +1,21 @@
+package jpa.jpashop.dto;
+
+import jpa.jpashop.domain.DeliveryStatus;
+import jpa.jpashop.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 일괄 취소 전에 취소 가능 여부를 판단하기 위한 주문 상태와 배송 상태
+@Getter
+@AllArgsConstructor
+public class OrderCancelCandidateDto {
+
+    private Long orderId;
+
+    private Long memberId;
+
+    private OrderStatus orderStatus;
+
+    private DeliveryStatus deliveryStatus;
+
+}
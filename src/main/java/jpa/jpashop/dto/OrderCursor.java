@@ -0,0 +1,58 @@
+package jpa.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/*
+키셋(seek) 페이징용 커서
+마지막으로 조회한 주문의 (orderDate, orderId)를 담고, 클라이언트에는 불투명한 문자열로만 노출함
+ */
+@Getter
+@AllArgsConstructor
+public class OrderCursor {
+
+    private static final String DELIMITER = "|";
+
+    private final LocalDateTime orderDate;
+
+    private final Long orderId;
+
+    // 조회 결과가 limit만큼 꽉 찼을 때만 다음 페이지가 존재할 수 있으므로 커서를 만들어줌
+    public static String next(List<OrderDto> orderDtoList, long limit) {
+        return next(orderDtoList, limit, OrderDto::getOrderDate, OrderDto::getOrderId);
+    }
+
+    public static <T> String next(List<T> rows, long limit, Function<T, LocalDateTime> orderDate, Function<T, Long> orderId) {
+        if (rows.isEmpty() || rows.size() < limit) {
+            return null;
+        }
+
+        T last = rows.get(rows.size() - 1);
+        return new OrderCursor(orderDate.apply(last), orderId.apply(last)).encode();
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = decoded.lastIndexOf(DELIMITER);
+            LocalDateTime orderDate = LocalDateTime.parse(decoded.substring(0, idx));
+            Long orderId = Long.valueOf(decoded.substring(idx + 1));
+            return new OrderCursor(orderDate, orderId);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.", e);
+        }
+    }
+
+    public String encode() {
+        String raw = orderDate + DELIMITER + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -42,10 +42,11 @@ public class OrderDto {
                 .collect(toList());
     }
 
-    public OrderDto(Long orderId, String memberName, Address address, LocalDateTime orderDate, OrderStatus status) {
+    public OrderDto(Long orderId, String memberName, Address address, int totalPrice, LocalDateTime orderDate, OrderStatus status) {
         this.orderId = orderId;
         this.memberName = memberName;
         this.address = address;
+        this.totalPrice = totalPrice;
         this.orderDate = orderDate;
         this.status = status;
     }
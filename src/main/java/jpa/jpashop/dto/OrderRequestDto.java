@@ -0,0 +1,23 @@
+package jpa.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequestDto {
+
+    @NotNull
+    private Long memberId;
+
+    @NotEmpty
+    private List<OrderItemDto> orderItems;
+
+}
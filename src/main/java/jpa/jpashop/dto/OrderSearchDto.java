@@ -3,16 +3,60 @@ package jpa.jpashop.dto;
 import jpa.jpashop.domain.OrderStatus;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
 
 @Getter @Setter
 public class OrderSearchDto {
 
+    public static final Duration MAX_BULK_CANCEL_PERIOD = Duration.ofDays(31);
+
     private String memberName;
 
     private OrderStatus orderStatus;
 
+    // 주문 일시 범위 [orderDateFrom, orderDateTo). 둘 다 생략 가능
+    private LocalDateTime orderDateFrom;
+
+    private LocalDateTime orderDateTo;
+
     private long offset = 0;
 
     private long limit = 100;
 
+    // 이전 응답의 nextCursor. 값이 있으면 offset 대신 (orderDate, orderId) 기준 키셋 페이징으로 조회함
+    private String cursor;
+
+    /*
+    일괄 취소 대상을 충분히 좁히는 조건인지 (전체 또는 대부분의 주문이 한 번에 취소되는 것 방지용)
+    회원 이름이 있거나, 주문 일시 범위의 양쪽 끝이 모두 있고 그 길이가 MAX_BULK_CANCEL_PERIOD 이내여야 함
+    한쪽만 열린 범위(예: orderDateTo만 지정)는 과거 주문 전체가 될 수 있으므로 인정하지 않음
+     */
+    public boolean hasNarrowingCondition() {
+        if (StringUtils.hasText(memberName)) {
+            return true;
+        }
+        return orderDateFrom != null && orderDateTo != null
+                && orderDateFrom.isBefore(orderDateTo)
+                && !orderDateFrom.plus(MAX_BULK_CANCEL_PERIOD).isBefore(orderDateTo);
+    }
+
+    // 앞뒤 공백은 조건으로 보지 않음 (공백만 있으면 조건 없음). 검색과 캐시 키가 같은 값을 쓰도록 입력 시점에 정규화
+    public void setMemberName(String memberName) {
+        this.memberName = StringUtils.hasText(memberName) ? memberName.trim() : null;
+    }
+
+    public boolean hasCursor() {
+        return cursor != null && !cursor.isEmpty();
+    }
+
+    // 검색 결과 캐시 키. 같은 결과를 내는 조건은 같은 키가 되도록 함 (커서가 있으면 offset 무시)
+    public String toCacheKey() {
+        String name = memberName == null ? "" : memberName;
+        long effectiveOffset = hasCursor() ? 0 : offset;
+        return name + "|" + orderStatus + "|" + orderDateFrom + "|" + orderDateTo + "|" + effectiveOffset + "|" + limit + "|" + (hasCursor() ? cursor : "");
+    }
+
 }
@@ -0,0 +1,13 @@
+package jpa.jpashop.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 상품 이름/가격/재고가 바뀜 (트랜잭션 커밋 이후에 처리할 리스너는 @TransactionalEventListener로 받음)
+@Getter
+@AllArgsConstructor
+public class ItemChangedEvent {
+
+    private final Long itemId;
+
+}
@@ -0,0 +1,13 @@
+package jpa.jpashop.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 회원 이름이 바뀜 (주문 요약처럼 회원 이름을 복사해 둔 읽기 모델은 커밋 이후에 다시 맞춤)
+@Getter
+@AllArgsConstructor
+public class MemberChangedEvent {
+
+    private final Long memberId;
+
+}
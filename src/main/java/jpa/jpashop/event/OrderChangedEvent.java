@@ -0,0 +1,15 @@
+package jpa.jpashop.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 주문이 생성되거나 취소됨. 일괄 주문은 트랜잭션 하나에 이벤트 하나로 모아서 발행
+@Getter
+@AllArgsConstructor
+public class OrderChangedEvent {
+
+    private final List<Long> orderIds;
+
+}
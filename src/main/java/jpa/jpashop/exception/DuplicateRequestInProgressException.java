@@ -0,0 +1,28 @@
+package jpa.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 같은 멱등 키의 요청이 아직 처리 중임 (클라이언트는 잠시 후 같은 키로 다시 시도)
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateRequestInProgressException extends RuntimeException {
+    public DuplicateRequestInProgressException() {
+        super();
+    }
+
+    public DuplicateRequestInProgressException(String message) {
+        super(message);
+    }
+
+    public DuplicateRequestInProgressException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public DuplicateRequestInProgressException(Throwable cause) {
+        super(cause);
+    }
+
+    protected DuplicateRequestInProgressException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
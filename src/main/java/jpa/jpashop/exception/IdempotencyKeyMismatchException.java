@@ -0,0 +1,28 @@
+package jpa.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 같은 멱등 키로 처음 요청과 다른 내용(회원, 주문 상품)을 보냄 (클라이언트가 키를 잘못 재사용한 경우라서 재시도해도 같은 결과)
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException() {
+        super();
+    }
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+
+    public IdempotencyKeyMismatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public IdempotencyKeyMismatchException(Throwable cause) {
+        super(cause);
+    }
+
+    protected IdempotencyKeyMismatchException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
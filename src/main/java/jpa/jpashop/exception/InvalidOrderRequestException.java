@@ -0,0 +1,28 @@
+package jpa.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 주문 요청 형식이 잘못됨 (회원 id나 주문 상품이 없거나, 주문 수량이 1 미만). DB를 건드리기 전에 거절함
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidOrderRequestException extends RuntimeException {
+    public InvalidOrderRequestException() {
+        super();
+    }
+
+    public InvalidOrderRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidOrderRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidOrderRequestException(Throwable cause) {
+        super(cause);
+    }
+
+    protected InvalidOrderRequestException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -0,0 +1,105 @@
+package jpa.jpashop.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+@Repository, @Service 빈의 public 메서드에 대해 다음 지표를 기록
+- jpashop.method.latency: 실행 시간 (p50, p99, p999)
+- jpashop.method.queries: 호출 한 번에 DB로 실행된 SQL 수 (JdbcTemplate 포함, JDBC batch는 한 번으로 셈. SqlStatementCounter 참고)
+- jpashop.method.rows: 반환한 행 수 (Collection, Optional 반환 메서드만)
+미터는 메서드별로 처음 호출될 때 한 번만 만들어서 캐싱하므로, 이후 호출에서는 태그나 미터 객체를 새로 할당하지 않음
+패키지가 아니라 스테레오타입으로 대상을 고르기 때문에 service 패키지의 @Component(주문 접수 파이프라인, 카탈로그 스냅샷,
+아웃박스 릴레이/싱크 등)는 측정하지 않음. 호출마다 JoinPoint와 미터 조회 비용이 붙으면 안 되는 경로들임
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class HotPathMetricsAspect {
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<Method, MethodMeters> metersByMethod = new ConcurrentHashMap<>();
+
+    @Around("execution(public * jpa.jpashop..*(..)) && " +
+            "(@within(org.springframework.stereotype.Repository) || @within(org.springframework.stereotype.Service))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMeters meters = metersFor(((MethodSignature) joinPoint.getSignature()).getMethod());
+
+        long queriesBefore = SqlStatementCounter.current();
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            meters.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meters.queries.record(SqlStatementCounter.current() - queriesBefore);
+            recordRows(meters, result);
+        }
+    }
+
+    private MethodMeters metersFor(Method method) {
+        MethodMeters meters = metersByMethod.get(method);
+        if (meters == null) {
+            meters = metersByMethod.computeIfAbsent(method, this::register);
+        }
+        return meters;
+    }
+
+    private MethodMeters register(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        String layer = className.endsWith("Repository") ? "repository" : "service";
+        Tags tags = Tags.of("layer", layer, "class", className, "method", method.getName());
+
+        Timer latency = Timer.builder("jpashop.method.latency")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(registry);
+
+        DistributionSummary queries = DistributionSummary.builder("jpashop.method.queries")
+                .tags(tags)
+                .register(registry);
+
+        DistributionSummary rows = DistributionSummary.builder("jpashop.method.rows")
+                .tags(tags)
+                .register(registry);
+
+        return new MethodMeters(latency, queries, rows);
+    }
+
+    private void recordRows(MethodMeters meters, Object result) {
+        if (result instanceof Collection) {
+            meters.rows.record(((Collection<?>) result).size());
+        } else if (result instanceof Optional) {
+            meters.rows.record(((Optional<?>) result).isPresent() ? 1 : 0);
+        }
+    }
+
+    private static class MethodMeters {
+        private final Timer latency;
+        private final DistributionSummary queries;
+        private final DistributionSummary rows;
+
+        private MethodMeters(Timer latency, DistributionSummary queries, DistributionSummary rows) {
+            this.latency = latency;
+            this.queries = queries;
+            this.rows = rows;
+        }
+    }
+
+}
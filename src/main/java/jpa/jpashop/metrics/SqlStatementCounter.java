@@ -0,0 +1,90 @@
+package jpa.jpashop.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+
+/*
+스레드별 SQL 실행 횟수 카운터
+DataSource를 감싸서 Statement의 execute*()가 호출될 때마다 현재 스레드의 카운터를 1 올림. 호출 전후 값의 차이가 그 구간에서 실행된 SQL 수
+Hibernate뿐 아니라 JdbcTemplate으로 실행한 SQL도 셈. JDBC batch는 executeBatch() 한 번을 한 번의 실행(왕복)으로 셈
+스레드마다 long[1] 하나만 할당하고 이후로는 할당 없이 증가만 함 (감싸는 것은 SqlStatementCountingPostProcessor가 dataSource 빈에만 적용)
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTIONS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private SqlStatementCounter() {
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    // 커넥션 풀(HikariDataSource)이면 컨텍스트 종료 시 close()가 그대로 호출되도록 AutoCloseable도 함께 구현
+    public static DataSource countingDataSource(DataSource dataSource) {
+        Class<?>[] types = dataSource instanceof AutoCloseable
+                ? new Class<?>[]{DataSource.class, AutoCloseable.class}
+                : new Class<?>[]{DataSource.class};
+        return (DataSource) proxy(types, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return method.getName().equals("getConnection") ? proxy(Connection.class, result, SqlStatementCounter::onConnection) : result;
+        });
+    }
+
+    private static Object onConnection(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        if (STATEMENT_FACTORIES.contains(method.getName())) {
+            // PreparedStatement, CallableStatement 등 호출한 메서드가 돌려주는 타입 그대로 감쌈
+            return proxy(method.getReturnType(), result, SqlStatementCounter::onStatement);
+        }
+        return result;
+    }
+
+    private static Object onStatement(Object target, Method method, Object[] args) throws Throwable {
+        if (EXECUTIONS.contains(method.getName())) {
+            COUNT.get()[0]++;
+        }
+        return invoke(target, method, args);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object proxy(Class<?> type, Object target, Interceptor interceptor) {
+        return proxy(new Class<?>[]{type}, target, interceptor);
+    }
+
+    // equals/hashCode는 프록시 자신 기준 (트랜잭션 리소스 키로 쓰이는 DataSource, 커넥션 비교가 깨지지 않도록)
+    private static Object proxy(Class<?>[] types, Object target, Interceptor interceptor) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            return interceptor.intercept(target, method, args);
+        };
+        return Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), types, handler);
+    }
+
+    @FunctionalInterface
+    private interface Interceptor {
+        Object intercept(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+}
@@ -0,0 +1,25 @@
+package jpa.jpashop.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/*
+JPA와 JdbcTemplate이 사용하는 dataSource 빈을 SqlStatementCounter로 감쌈
+replica 라우팅을 쓰는 경우에도 라우팅 DataSource(dataSource) 하나만 감싸므로 primary/replica 어느 쪽으로 가든 한 번만 셈
+ */
+@Component
+public class SqlStatementCountingPostProcessor implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource) {
+            return SqlStatementCounter.countingDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+
+}
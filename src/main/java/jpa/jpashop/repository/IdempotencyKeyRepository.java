@@ -0,0 +1,80 @@
+package jpa.jpashop.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /*
+    키 선점. 트랜잭션 밖에서 호출하면 INSERT가 바로 커밋되므로, 동시에 들어온 같은 키는 잠금을 기다리지 않고 즉시 기본 키 중복으로 실패함
+    선점에 성공하면 true
+     */
+    public boolean tryClaim(String key, String requestHash) {
+        try {
+            jdbcTemplate.update("insert into idempotency_key (idempotency_key, request_hash, created_at) values (?, ?, ?)",
+                    key, requestHash, Timestamp.valueOf(LocalDateTime.now()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // 주문 트랜잭션 안에서 호출해서 주문 id 기록이 주문과 함께 커밋되도록 함
+    public void complete(String key, Long orderId) {
+        jdbcTemplate.update("update idempotency_key set order_id = ? where idempotency_key = ?", orderId, key);
+    }
+
+    // 주문이 실패하면 선점을 풀어서 같은 키로 다시 시도할 수 있게 함
+    public void release(String key) {
+        jdbcTemplate.update("delete from idempotency_key where idempotency_key = ? and order_id is null", key);
+    }
+
+    // 처리 중인 요청이 claimedBefore 이전에 선점한 채로 남아 있으면(서버 중단 등) 선점을 풀어줌
+    public boolean releaseIfAbandoned(String key, LocalDateTime claimedBefore) {
+        return jdbcTemplate.update("delete from idempotency_key where idempotency_key = ? and order_id is null and created_at < ?",
+                key, Timestamp.valueOf(claimedBefore)) > 0;
+    }
+
+    // 키가 없으면 empty, 있으면 선점한 요청의 해시와 처리 중인지 완료되었는지를 Claim으로 반환
+    public Optional<Claim> find(String key) {
+        return jdbcTemplate.query("select request_hash, order_id from idempotency_key where idempotency_key = ?",
+                        (rs, rowNum) -> new Claim(rs.getString("request_hash"), rs.getObject("order_id", Long.class)), key)
+                .stream()
+                .findFirst();
+    }
+
+    public static class Claim {
+
+        private final String requestHash;
+        private final Long orderId;
+
+        private Claim(String requestHash, Long orderId) {
+            this.requestHash = requestHash;
+            this.orderId = orderId;
+        }
+
+        public boolean matches(String requestHash) {
+            return this.requestHash.equals(requestHash);
+        }
+
+        public boolean isCompleted() {
+            return orderId != null;
+        }
+
+        public Long getOrderId() {
+            return orderId;
+        }
+
+    }
+
+}
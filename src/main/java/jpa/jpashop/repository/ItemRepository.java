@@ -1,18 +1,53 @@
 package jpa.jpashop.repository;
 
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
 import jpa.jpashop.domain.item.Item;
-import lombok.RequiredArgsConstructor;
+import jpa.jpashop.dto.ItemCursor;
+import jpa.jpashop.dto.ItemDto;
+import jpa.jpashop.dto.ItemSearchDto;
+import jpa.jpashop.event.ItemChangedEvent;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static jpa.jpashop.domain.item.QItem.*;
 
 @Repository
-@RequiredArgsConstructor
 public class ItemRepository {
 
+    private static final String STOCK_QUERY_SPACE = "item_stock";
+
     private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ItemRepository(EntityManager em, ApplicationEventPublisher eventPublisher) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.eventPublisher = eventPublisher;
+    }
 
     public void save(Item item) {
         if (item.getId() == null) {
@@ -26,9 +61,221 @@ public class ItemRepository {
         return Optional.ofNullable(em.find(Item.class, id));
     }
 
-    public List<Item> findAll() {
-        return em.createQuery("select i from Item i", Item.class)
-                .getResultList();
+    /*
+    여러 상품을 id로 한 번에 조회 (존재하지 않는 id는 결과에서 빠짐)
+    JPQL IN 쿼리는 2차 캐시를 거치지 않으므로 multiLoad로 영속성 컨텍스트 → 2차 캐시 순으로 먼저 찾고,
+    둘 다 없는 상품만 IN 쿼리 한 번으로 조회함
+     */
+    public List<Item> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return em.unwrap(Session.class)
+                .byMultipleIds(Item.class)
+                .enableSessionCheck(true)
+                .multiLoad(new ArrayList<>(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /*
+    상품 목록 (타입, 가격 범위, 재고 있는 상품만) - (price, itemId) 키셋 페이징
+    엔티티 대신 목록에 필요한 컬럼만 DTO로 조회하고, 조건/정렬은 idx_item_dtype_price_id, idx_item_price_id 인덱스 순서와 맞춤
+     */
+    public List<ItemDto> findCatalog(ItemSearchDto searchCond) {
+        BooleanBuilder builder = new BooleanBuilder();
+
+        if (searchCond.getItemType() != null) {
+            builder.and(item.dtype.eq(searchCond.getItemType().getDiscriminator()));
+        }
+        if (searchCond.getMinPrice() != null) {
+            builder.and(item.price.goe(searchCond.getMinPrice()));
+        }
+        if (searchCond.getMaxPrice() != null) {
+            builder.and(item.price.loe(searchCond.getMaxPrice()));
+        }
+        if (searchCond.isInStockOnly()) {
+            builder.and(item.stock.gt(0));
+        }
+        if (searchCond.hasCursor()) {
+            builder.and(afterCursor(ItemCursor.decode(searchCond.getCursor())));
+        }
+
+        return queryFactory
+                .select(itemDtoProjection())
+                .from(item)
+                .where(builder)
+                .orderBy(item.price.asc(), item.id.asc())
+                .limit(searchCond.getLimit())
+                .fetch();
+    }
+
+    /*
+    재고가 충분할 때만 DB에서 원자적으로 차감 (stock = stock - ? where stock >= ?)
+    자바에서 읽고-검사하고-쓰는 방식과 달리 동시 주문이 몰려도 초과 판매나 갱신 유실이 생기지 않음
+    차감에 실패하면 false 반환
+    성공하면 넘겨받은 item은 준영속 상태가 됨 (detachStale 참고)
+     */
+    public boolean decreaseStock(Item item, int quantity) {
+        flushPendingChanges(item);
+        int updated = createStockUpdate("update item set stock = stock - :quantity where item_id = :id and stock >= :quantity")
+                .setParameter("quantity", quantity)
+                .setParameter("id", item.getId())
+                .executeUpdate();
+
+        if (updated == 0) {
+            return false;
+        }
+
+        detachStale(item);
+        evictFromCache(item.getId());
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
+        return true;
+    }
+
+    public void increaseStock(Item item, int quantity) {
+        flushPendingChanges(item);
+        createStockUpdate("update item set stock = stock + :quantity where item_id = :id")
+                .setParameter("quantity", quantity)
+                .setParameter("id", item.getId())
+                .executeUpdate();
+
+        detachStale(item);
+        evictFromCache(item.getId());
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
+    }
+
+    /*
+    취소된 주문들의 재고를 한 번에 복구
+    주문 상품을 상품별로 합산한 수량만큼 하나의 UPDATE로 더하므로, 주문 수나 주문 상품 줄 수와 관계없이 문장은 하나
+    영속성 컨텍스트에 로딩된 상품의 재고 값은 맞춰주지 않으므로 호출 전에 비워두어야 함
+     */
+    public void increaseStockForOrders(Collection<Long> orderIds, Collection<Long> itemIds) {
+        createStockUpdate("update item set stock = stock + " +
+                "(select sum(oi.count) from order_item oi where oi.item_id = item.item_id and oi.order_id in (:orderIds)) " +
+                "where item_id in (:itemIds)")
+                .setParameter("orderIds", orderIds)
+                .setParameter("itemIds", itemIds)
+                .executeUpdate();
+
+        for (Long itemId : itemIds) {
+            evictFromCache(itemId);
+            eventPublisher.publishEvent(new ItemChangedEvent(itemId));
+        }
+    }
+
+    /*
+    재고 변경용 네이티브 UPDATE
+    JPQL 벌크 연산은 실행할 때마다 Item 2차 캐시 영역 전체를 비워버리므로, 어떤 엔티티 테이블과도 겹치지 않는 query space를 지정해서
+    전체 무효화를 막고 변경된 상품만 evictFromCache()로 직접 무효화함
+    또한 실행 전 자동 flush를 하지 않아서 일괄 주문의 INSERT batch가 주문마다 끊기지 않음 (대상 상품의 변경은 flushPendingChanges()로 따로 반영)
+     */
+    private Query createStockUpdate(String sql) {
+        return em.createNativeQuery(sql)
+                .setFlushMode(FlushModeType.COMMIT)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE);
+    }
+
+    // 상품 id 순으로 afterId 다음부터 limit건 (카탈로그 스냅샷 전체 적재용)
+    public List<ItemDto> findItemDtos(Long afterId, int limit) {
+        return queryFactory
+                .select(itemDtoProjection())
+                .from(item)
+                .where(item.id.gt(afterId))
+                .orderBy(item.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    public List<ItemDto> findItemDtosByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return queryFactory
+                .select(itemDtoProjection())
+                .from(item)
+                .where(item.id.in(ids))
+                .orderBy(item.id.asc())
+                .fetch();
+    }
+
+    private ConstructorExpression<ItemDto> itemDtoProjection() {
+        return Projections.constructor(
+                ItemDto.class,
+                item.id,
+                item.dtype,
+                item.name,
+                item.price,
+                item.stock
+        );
+    }
+
+    private BooleanExpression afterCursor(ItemCursor cursor) {
+        return item.price.gt(cursor.getPrice())
+                .or(item.price.eq(cursor.getPrice()).and(item.id.gt(cursor.getItemId())));
+    }
+
+    // 커밋 이후에도 한 번 더 무효화해서, 커밋 전에 다른 트랜잭션이 예전 값을 다시 캐시에 올려놓은 경우까지 정리함
+    private void evictFromCache(Long itemId) {
+        Cache cache = em.getEntityManagerFactory().getCache();
+        cache.evict(Item.class, itemId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(Item.class, itemId);
+                }
+            });
+        }
+    }
+
+    /*
+    재고 UPDATE는 자동 flush를 하지 않으므로, 넘겨받은 상품에 아직 DB에 반영되지 않은 변경(신규 등록, 이름/가격 수정 등)이 있으면 먼저 flush 함
+    그렇지 않으면 신규 상품은 UPDATE 대상 행이 없어서 차감에 실패하고, 수정 내용은 이후 detachStale()에서 조용히 버려짐
+    Item은 @DynamicUpdate라서 이때 변경된 컬럼만 UPDATE 하고, 로딩 이후 다른 트랜잭션이 바꾼 재고를 예전 값으로 덮어쓰지 않음
+    변경이 없는 상품(일반적인 주문 흐름)은 flush 하지 않으므로 일괄 주문의 INSERT batch도 그대로 유지됨
+     */
+    private void flushPendingChanges(Item item) {
+        if (!Hibernate.isInitialized(item)) {
+            return; // 초기화되지 않은 프록시는 변경될 수 없음
+        }
+
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        Object entity = Hibernate.unproxy(item);
+        EntityEntry entry = session.getPersistenceContext().getEntry(entity);
+        if (entry == null) {
+            return; // 준영속 상품
+        }
+
+        if (!entry.isExistsInDatabase() || isDirty(session, entry, entity)) {
+            em.flush();
+        }
+    }
+
+    private boolean isDirty(SessionImplementor session, EntityEntry entry, Object entity) {
+        EntityPersister persister = entry.getPersister();
+        return persister.findDirty(persister.getPropertyValues(entity), entry.getLoadedState(), entity, session) != null;
+    }
+
+    /*
+    벌크 UPDATE는 영속성 컨텍스트를 거치지 않으므로 이미 로딩된 엔티티의 재고 값은 DB와 달라짐
+    그대로 두면 dirty-checking에 의해 예전 stock 값이 다시 덮어써질 수 있으므로 영속성 컨텍스트에서 분리하고,
+    이후 같은 트랜잭션에서 상품을 다시 조회하면 DB의 최신 값을 읽어옴 (SELECT를 추가로 하는 refresh 대신 분리를 선택)
+    분리하기 전에 flushPendingChanges()로 변경 내용을 이미 반영했으므로 버려지는 변경은 없음
+     */
+    private void detachStale(Item item) {
+        if (!Hibernate.isInitialized(item)) {
+            return; // 아직 로딩되지 않은 프록시는 나중에 초기화될 때 DB 값을 그대로 읽어옴
+        }
+
+        if (em.contains(item)) {
+            em.detach(item);
+        }
     }
 
 }
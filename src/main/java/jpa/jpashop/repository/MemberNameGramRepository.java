@@ -0,0 +1,32 @@
+package jpa.jpashop.repository;
+
+import jpa.jpashop.domain.Member;
+import jpa.jpashop.domain.MemberNameGram;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+
+@Repository
+@RequiredArgsConstructor
+public class MemberNameGramRepository {
+
+    private final EntityManager em;
+
+    // 회원 이름의 gram들을 색인 테이블에 저장 (INSERT는 JDBC batch로 묶여서 나감)
+    public void index(Member member) {
+        for (String gram : MemberNameGram.indexGrams(member.getName())) {
+            em.persist(new MemberNameGram(member, gram));
+        }
+    }
+
+    // 이름이 바뀐 회원의 기존 gram을 한 번에 지우고 다시 색인
+    public void reindex(Member member) {
+        em.createQuery("delete from MemberNameGram g where g.member = :member")
+                .setParameter("member", member)
+                .executeUpdate();
+
+        index(member);
+    }
+
+}
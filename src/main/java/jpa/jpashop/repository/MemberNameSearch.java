@@ -0,0 +1,36 @@
+package jpa.jpashop.repository;
+
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLQuery;
+import jpa.jpashop.domain.MemberNameGram;
+
+import java.util.Set;
+
+import static jpa.jpashop.domain.QMemberNameGram.*;
+
+/*
+회원 이름 부분 일치 검색
+n-gram 색인 테이블에서 검색어의 gram을 모두 가진 회원 id를 찾는 서브쿼리
+검색어가 3자보다 길면 gram 조합만으로는 후보일 뿐이므로 호출부에서 후보 회원의 이름에 대해서만 LIKE로 한 번 더 확인해야 함
+ */
+final class MemberNameSearch {
+
+    private MemberNameSearch() {
+    }
+
+    static JPQLQuery<Long> memberIdsContaining(String memberName) {
+        Set<String> grams = MemberNameGram.searchGrams(memberName);
+
+        return JPAExpressions
+                .select(memberNameGram.member.id)
+                .from(memberNameGram)
+                .where(memberNameGram.gram.in(grams))
+                .groupBy(memberNameGram.member.id)
+                .having(memberNameGram.gram.countDistinct().eq((long) grams.size()));
+    }
+
+    static boolean needsRecheck(String memberName) {
+        return memberName.length() > MemberNameGram.MAX_GRAM_LENGTH;
+    }
+
+}
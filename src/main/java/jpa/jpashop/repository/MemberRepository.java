@@ -1,6 +1,8 @@
 package jpa.jpashop.repository;
 
 import jpa.jpashop.domain.Member;
+import jpa.jpashop.dto.MemberCursor;
+import jpa.jpashop.dto.MemberDto;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
@@ -28,8 +30,18 @@ public class MemberRepository {
                 .getResultStream().findFirst();
     }
 
-    public List<Member> findAll() {
-        return em.createQuery("select m from Member m", Member.class)
+    /*
+    회원 목록 키셋 페이징 (member_id 오름차순, 커서의 회원 다음부터 limit건)
+    엔티티를 영속성 컨텍스트에 올리지 않고 DTO 생성자로 바로 받음
+     */
+    public List<MemberDto> findMemberDtos(String cursor, int limit) {
+        long afterId = cursor != null && !cursor.isEmpty() ? MemberCursor.decode(cursor).getMemberId() : 0L;
+
+        return em.createQuery("select new jpa.jpashop.dto.MemberDto(m.id, m.name, m.address) from Member m"
+                        + " where m.id > :afterId"
+                        + " order by m.id", MemberDto.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
                 .getResultList();
     }
 
@@ -2,20 +2,27 @@ package jpa.jpashop.repository;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jpa.jpashop.domain.Order;
 import jpa.jpashop.domain.OrderStatus;
+import jpa.jpashop.dto.OrderCancelCandidateDto;
+import jpa.jpashop.dto.OrderCursor;
 import jpa.jpashop.dto.OrderDto;
 import jpa.jpashop.dto.OrderItemDto;
 import jpa.jpashop.dto.OrderSearchDto;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static jpa.jpashop.domain.QDelivery.*;
 import static jpa.jpashop.domain.QMember.*;
@@ -42,20 +49,31 @@ public class OrderRepository {
         return Optional.ofNullable(em.find(Order.class, id));
     }
 
+    /*
+    주문 행을 잠그고 (SELECT ... FOR UPDATE) 조회. 동시에 들어온 다른 단건/일괄 취소는 이 트랜잭션이 끝날 때까지 기다림
+    같은 트랜잭션에서 방금 저장한 주문도 잠글 수 있게 먼저 flush 함
+    이미 영속성 컨텍스트에 있는 주문은 잠금만 걸고 다시 읽지 않으므로, 잠금 이전에 조회해 둔 주문에 대해 호출하면 안 됨
+     */
+    public Optional<Order> findByIdForUpdate(Long id) {
+        em.flush();
+        return Optional.ofNullable(em.find(Order.class, id, LockModeType.PESSIMISTIC_WRITE));
+    }
+
+    // 쌓여 있는 INSERT를 batch로 내보내고, 영속성 컨텍스트를 비워서 대량 저장 시 메모리와 dirty-checking 비용이 늘어나지 않게 함
+    public void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+
     public List<Order> findBySearchCond(OrderSearchDto searchCond) {
-        String memberName = searchCond.getMemberName();
-        OrderStatus orderStatus = searchCond.getOrderStatus();
         long limit = searchCond.getLimit();
-        long offset = searchCond.getOffset();
+        // 커서가 있으면 앞 페이지를 건너뛰는 대신 인덱스를 타고 바로 seek 하므로 offset은 사용하지 않음
+        long offset = searchCond.hasCursor() ? 0 : searchCond.getOffset();
 
-        BooleanBuilder builder = new BooleanBuilder();
-
-        if (StringUtils.hasText(memberName)) {
-            builder.and(member.name.like("%" + memberName + "%"));
-        }
+        BooleanBuilder builder = searchCondition(searchCond);
 
-        if (orderStatus != null) {
-            builder.and(order.status.eq(orderStatus));
+        if (searchCond.hasCursor()) {
+            builder.and(afterCursor(OrderCursor.decode(searchCond.getCursor())));
         }
 
         return queryFactory
@@ -64,6 +82,7 @@ public class OrderRepository {
                 .join(order.member, member).fetchJoin()
                 .join(order.delivery).fetchJoin()
                 .where(builder)
+                .orderBy(order.orderDate.desc(), order.id.desc())
                 .offset(offset)
                 .limit(limit)
                 .fetch();
@@ -71,32 +90,100 @@ public class OrderRepository {
 
     public List<OrderDto> findBySearchCondV2(OrderSearchDto searchCond) {
         List<OrderDto> orderDtoList = findOrderDtos(searchCond);
+        fillOrderItems(orderDtoList);
+        return orderDtoList;
+    }
+
+    // 주문 DTO 목록에 속한 주문 상품들을 IN 쿼리 한 번으로 조회해서 채워 넣음
+    public void fillOrderItems(List<OrderDto> orderDtoList) {
+        if (orderDtoList.isEmpty()) {
+            return;
+        }
+
         List<Long> orderIds = orderDtoList.stream().map(OrderDto::getOrderId).collect(Collectors.toList());
 
         List<OrderItemDto> orderItemDtoList = findOrderItemDtos(orderIds);
         Map<Long, List<OrderItemDto>> orderItemDtoMap = orderItemDtoList.stream().collect(Collectors.groupingBy(OrderItemDto::getOrderId));
 
         orderDtoList.forEach(o -> o.setOrderItems(orderItemDtoMap.get(o.getOrderId())));
-
-        return orderDtoList;
     }
 
     public List<OrderDto> findOrderDtos(OrderSearchDto searchCond) {
-        String memberName = searchCond.getMemberName();
-        OrderStatus orderStatus = searchCond.getOrderStatus();
         long limit = searchCond.getLimit();
-        long offset = searchCond.getOffset();
+        // 커서가 있으면 앞 페이지를 건너뛰는 대신 인덱스를 타고 바로 seek 하므로 offset은 사용하지 않음
+        long offset = searchCond.hasCursor() ? 0 : searchCond.getOffset();
 
-        BooleanBuilder builder = new BooleanBuilder();
+        BooleanBuilder builder = searchCondition(searchCond);
 
-        if (StringUtils.hasText(memberName)) {
-            builder.and(member.name.like("%" + memberName + "%"));
+        if (searchCond.hasCursor()) {
+            builder.and(afterCursor(OrderCursor.decode(searchCond.getCursor())));
         }
 
-        if (orderStatus != null) {
-            builder.and(order.status.eq(orderStatus));
+        return queryFactory
+                .select(
+                        Projections.constructor(
+                                OrderDto.class,
+                                order.id,
+                                order.member.name,
+                                delivery.address,
+                                order.totalPrice,
+                                order.orderDate,
+                                order.status
+                        )
+                )
+                .from(order)
+                .join(order.member, member)
+                .join(order.delivery, delivery)
+                .where(builder)
+                .orderBy(order.orderDate.desc(), order.id.desc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    /*
+    회원의 주문 이력 (최신순, 키셋 페이징)
+    Member.orders 컬렉션을 통째로 로딩하지 않고 (member_id, order_date, order_id) 인덱스로 한 페이지씩만 조회
+     */
+    public List<OrderDto> findOrderHistory(Long memberId, String cursor, long limit) {
+        BooleanBuilder builder = new BooleanBuilder(order.member.id.eq(memberId));
+
+        if (cursor != null && !cursor.isEmpty()) {
+            builder.and(afterCursor(OrderCursor.decode(cursor)));
         }
 
+        List<OrderDto> orderDtoList = queryFactory
+                .select(
+                        Projections.constructor(
+                                OrderDto.class,
+                                order.id,
+                                member.name,
+                                delivery.address,
+                                order.totalPrice,
+                                order.orderDate,
+                                order.status
+                        )
+                )
+                .from(order)
+                .join(order.member, member)
+                .join(order.delivery, delivery)
+                .where(builder)
+                .orderBy(order.orderDate.desc(), order.id.desc())
+                .limit(limit)
+                .fetch();
+
+        fillOrderItems(orderDtoList);
+        return orderDtoList;
+    }
+
+    /*
+    검색 조건에 해당하는 모든 주문을 forward-only 커서로 한 건씩 읽어옴 (offset, limit 미적용)
+    결과를 List로 모으지 않기 때문에 전체 건수와 무관하게 메모리 사용량이 fetch size 수준으로 유지됨
+    반드시 트랜잭션 안에서 소비하고 close 해야 함
+     */
+    public Stream<OrderDto> streamOrderDtos(OrderSearchDto searchCond, int fetchSize) {
+        BooleanBuilder builder = searchCondition(searchCond);
+
         return queryFactory
                 .select(
                         Projections.constructor(
@@ -104,6 +191,7 @@ public class OrderRepository {
                                 order.id,
                                 order.member.name,
                                 delivery.address,
+                                order.totalPrice,
                                 order.orderDate,
                                 order.status
                         )
@@ -112,12 +200,114 @@ public class OrderRepository {
                 .join(order.member, member)
                 .join(order.delivery, delivery)
                 .where(builder)
-                .offset(offset)
+                .orderBy(order.orderDate.desc(), order.id.desc())
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .stream();
+    }
+
+    /*
+    일괄 취소할 주문 행을 order_id 순서로 잠그고 (FOR UPDATE) 취소 가능 여부 판단에 필요한 상태를 조회
+    동시에 들어온 단건 취소나 다른 일괄 취소와 같은 주문을 두 번 취소하지 않으며, 잠금 순서가 같아서 교착 상태도 생기지 않음
+    존재하지 않는 id는 결과에서 빠짐
+     */
+    public List<OrderCancelCandidateDto> lockCancelCandidates(Collection<Long> orderIds) {
+        em.createNativeQuery("select order_id from orders where order_id in (:ids) order by order_id for update")
+                .setParameter("ids", orderIds)
+                .getResultList();
+
+        return queryFactory
+                .select(
+                        Projections.constructor(
+                                OrderCancelCandidateDto.class,
+                                order.id,
+                                order.member.id,
+                                order.status,
+                                delivery.status
+                        )
+                )
+                .from(order)
+                .join(order.delivery, delivery)
+                .where(order.id.in(orderIds))
+                .fetch();
+    }
+
+    // 주문 상태를 한 번의 UPDATE로 취소로 변경 (영속성 컨텍스트를 거치지 않으므로 호출 전 주문 엔티티가 로딩되어 있으면 안 됨)
+    public long cancelAll(Collection<Long> orderIds) {
+        return queryFactory
+                .update(order)
+                .set(order.status, OrderStatus.CANCEL)
+                .where(order.id.in(orderIds))
+                .execute();
+    }
+
+    // 검색 조건(회원 이름, 주문 일시)에 해당하는 ORDER 상태 주문 id를 id 순으로 afterId 다음부터 limit건 (일괄 취소용)
+    public List<Long> findCancelableOrderIds(OrderSearchDto searchCond, Long afterId, int limit) {
+        BooleanBuilder builder = new BooleanBuilder(order.status.eq(OrderStatus.ORDER));
+        addMemberNameAndDateConditions(builder, searchCond);
+
+        if (afterId != null) {
+            builder.and(order.id.gt(afterId));
+        }
+
+        return queryFactory
+                .select(order.id)
+                .from(order)
+                .join(order.member, member)
+                .where(builder)
+                .orderBy(order.id.asc())
                 .limit(limit)
                 .fetch();
     }
 
-    private List<OrderItemDto> findOrderItemDtos(List<Long> orderIds) {
+    /*
+    검색 조건 (회원 이름, 주문 상태, 주문 일시 범위)
+    조건 조합별로 orders 테이블의 인덱스가 하나씩 대응됨 (Order의 @Table 인덱스 참고)
+     */
+    private BooleanBuilder searchCondition(OrderSearchDto searchCond) {
+        BooleanBuilder builder = new BooleanBuilder();
+
+        if (searchCond.getOrderStatus() != null) {
+            builder.and(order.status.eq(searchCond.getOrderStatus()));
+        }
+
+        addMemberNameAndDateConditions(builder, searchCond);
+        return builder;
+    }
+
+    private void addMemberNameAndDateConditions(BooleanBuilder builder, OrderSearchDto searchCond) {
+        if (StringUtils.hasText(searchCond.getMemberName())) {
+            builder.and(memberNameContains(searchCond.getMemberName()));
+        }
+
+        // from은 포함, to는 제외 (하루 단위 조회를 [자정, 다음 날 자정)으로 겹치지 않게 나눌 수 있음)
+        if (searchCond.getOrderDateFrom() != null) {
+            builder.and(order.orderDate.goe(searchCond.getOrderDateFrom()));
+        }
+
+        if (searchCond.getOrderDateTo() != null) {
+            builder.and(order.orderDate.lt(searchCond.getOrderDateTo()));
+        }
+    }
+
+    // 회원 이름 부분 일치 검색: n-gram 색인으로 찾은 member_id로 주문을 거름 (MemberNameSearch 참고)
+    private BooleanExpression memberNameContains(String memberName) {
+        BooleanExpression condition = order.member.id.in(MemberNameSearch.memberIdsContaining(memberName));
+
+        if (MemberNameSearch.needsRecheck(memberName)) {
+            condition = condition.and(member.name.like("%" + memberName + "%"));
+        }
+
+        return condition;
+    }
+
+    // (orderDate, id) 내림차순 정렬 기준으로 커서보다 뒤에 위치한 주문만 조회
+    private BooleanExpression afterCursor(OrderCursor cursor) {
+        return order.orderDate.lt(cursor.getOrderDate())
+                .or(order.orderDate.eq(cursor.getOrderDate()).and(order.id.lt(cursor.getOrderId())));
+    }
+
+    public List<OrderItemDto> findOrderItemDtos(Collection<Long> orderIds) {
         return queryFactory
                 .select(
                         Projections.constructor(
@@ -0,0 +1,159 @@
+package jpa.jpashop.repository;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jpa.jpashop.domain.OrderStatus;
+import jpa.jpashop.domain.OrderSummary;
+import jpa.jpashop.dto.OrderCursor;
+import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.dto.OrderSummaryDto;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.List;
+
+import static jpa.jpashop.domain.QOrder.*;
+import static jpa.jpashop.domain.QOrderSummary.*;
+
+@Repository
+public class OrderSummaryRepository {
+
+    private static final int REFRESH_CHUNK_SIZE = 1000;
+
+    private static final String MERGE_SQL = "merge into order_summary s"
+            + " using (select o.order_id, o.member_id, m.name member_name, d.city, d.street, d.zipcode, o.status, o.total_price,"
+            + " (select count(*) from order_item oi where oi.order_id = o.order_id) item_count, o.order_date"
+            + " from orders o"
+            + " join member m on m.member_id = o.member_id"
+            + " join delivery d on d.delivery_id = o.delivery_id"
+            + " where o.order_id in (:ids)) src"
+            + " on s.order_id = src.order_id"
+            + " when matched then update set member_id = src.member_id, member_name = src.member_name,"
+            + " city = src.city, street = src.street, zipcode = src.zipcode, status = src.status,"
+            + " total_price = src.total_price, item_count = src.item_count, order_date = src.order_date"
+            + " when not matched then insert (order_id, member_id, member_name, city, street, zipcode, status, total_price, item_count, order_date)"
+            + " values (src.order_id, src.member_id, src.member_name, src.city, src.street, src.zipcode, src.status,"
+            + " src.total_price, src.item_count, src.order_date)";
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    public OrderSummaryRepository(EntityManager em) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    /*
+    원본 주문(orders, member, delivery, order_item)에서 요약 행을 다시 계산해서 MERGE 한 문장으로 저장 (없으면 INSERT, 있으면 UPDATE)
+    같은 주문의 갱신이 동시에 실행될 수 있으므로 (주문 커밋 직후의 갱신과 취소/회원 이름 변경/재구축에 의한 갱신)
+    원본 주문 행을 order_id 순서로 잠근 뒤에 원본을 읽음. 나중에 잠금을 얻은 갱신이 항상 더 최신 원본을 읽으므로
+    먼저 읽은 오래된 값이 최신 값을 덮어쓰지 않고, 두 갱신이 같은 행을 동시에 INSERT 하다가 PK 위반이 나지도 않음
+     */
+    public void refresh(List<Long> orderIds) {
+        for (int from = 0; from < orderIds.size(); from += REFRESH_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, orderIds.size()));
+
+            em.createNativeQuery("select order_id from orders where order_id in (:ids) order by order_id for update")
+                    .setParameter("ids", chunk)
+                    .getResultList();
+
+            createSummaryUpdate(MERGE_SQL)
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+    }
+
+    // 회원 이름이 바뀌면 그 회원의 모든 주문 요약 행을 다시 계산하기 위해 원본 주문 id를 조회
+    public List<Long> findOrderIdsByMember(Long memberId) {
+        return queryFactory
+                .select(order.id)
+                .from(order)
+                .where(order.member.id.eq(memberId))
+                .orderBy(order.id.asc())
+                .fetch();
+    }
+
+    // 재구축 시 원본 주문 id를 순서대로 나눠서 읽음
+    public List<Long> findOrderIds(Long afterId, int limit) {
+        return queryFactory
+                .select(order.id)
+                .from(order)
+                .where(order.id.gt(afterId))
+                .orderBy(order.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    // 조인 없이 order_summary 한 테이블만 조회 (정렬/키셋 조건은 OrderRepository.findOrderDtos와 같음)
+    public List<OrderSummaryDto> search(OrderSearchDto searchCond) {
+        String memberName = searchCond.getMemberName();
+        OrderStatus orderStatus = searchCond.getOrderStatus();
+        long offset = searchCond.hasCursor() ? 0 : searchCond.getOffset();
+
+        BooleanBuilder builder = new BooleanBuilder();
+
+        if (StringUtils.hasText(memberName)) {
+            builder.and(orderSummary.memberId.in(MemberNameSearch.memberIdsContaining(memberName)));
+            if (MemberNameSearch.needsRecheck(memberName)) {
+                builder.and(orderSummary.memberName.like("%" + memberName + "%"));
+            }
+        }
+
+        if (orderStatus != null) {
+            builder.and(orderSummary.status.eq(orderStatus));
+        }
+
+        if (searchCond.getOrderDateFrom() != null) {
+            builder.and(orderSummary.orderDate.goe(searchCond.getOrderDateFrom()));
+        }
+
+        if (searchCond.getOrderDateTo() != null) {
+            builder.and(orderSummary.orderDate.lt(searchCond.getOrderDateTo()));
+        }
+
+        if (searchCond.hasCursor()) {
+            builder.and(afterCursor(OrderCursor.decode(searchCond.getCursor())));
+        }
+
+        return queryFactory
+                .select(
+                        Projections.constructor(
+                                OrderSummaryDto.class,
+                                orderSummary.orderId,
+                                orderSummary.memberName,
+                                orderSummary.address,
+                                orderSummary.totalPrice,
+                                orderSummary.itemCount,
+                                orderSummary.orderDate,
+                                orderSummary.status
+                        )
+                )
+                .from(orderSummary)
+                .where(builder)
+                .orderBy(orderSummary.orderDate.desc(), orderSummary.orderId.desc())
+                .offset(offset)
+                .limit(searchCond.getLimit())
+                .fetch();
+    }
+
+    /*
+    요약 행 갱신용 네이티브 문장
+    query space를 OrderSummary로 한정해서 실행할 때마다 회원/상품 2차 캐시 영역 전체가 비워지지 않게 함
+     */
+    private Query createSummaryUpdate(String sql) {
+        return em.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(OrderSummary.class);
+    }
+
+    private BooleanExpression afterCursor(OrderCursor cursor) {
+        return orderSummary.orderDate.lt(cursor.getOrderDate())
+                .or(orderSummary.orderDate.eq(cursor.getOrderDate()).and(orderSummary.orderId.lt(cursor.getOrderId())));
+    }
+
+}
@@ -0,0 +1,55 @@
+package jpa.jpashop.repository;
+
+import jpa.jpashop.domain.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private final EntityManager em;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // 호출한 트랜잭션(주문 저장)에 함께 묶여서 INSERT 됨
+    public void append(OutboxMessage message) {
+        em.persist(message);
+    }
+
+    /*
+    오래된 메시지부터 (생성 시각, id 순) batchSize건을 행 잠금으로 선점
+    id는 서버마다 블록 단위로 미리 확보하므로 id 순서가 생성 순서와 다를 수 있어서 생성 시각을 먼저 봄
+    SKIP LOCKED라서 다른 릴레이(다른 서버)가 잠근 행은 기다리지 않고 건너뛰므로 여러 릴레이가 서로 다른 배치를 동시에 처리함
+    잠금은 호출한 트랜잭션이 끝날 때까지 유지되므로 전달과 삭제를 같은 트랜잭션에서 해야 함
+     */
+    public List<OutboxMessage> claim(int batchSize) {
+        return jdbcTemplate.query(
+                "select outbox_message_id, aggregate_type, aggregate_id, event_type, payload, created_at"
+                        + " from outbox_message order by created_at, outbox_message_id"
+                        + " fetch first :batchSize rows only for update skip locked",
+                new MapSqlParameterSource("batchSize", batchSize),
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("outbox_message_id"),
+                        rs.getString("aggregate_type"),
+                        rs.getLong("aggregate_id"),
+                        rs.getString("event_type"),
+                        rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime()
+                ));
+    }
+
+    // 전달이 끝난 메시지를 한 번에 삭제
+    public int delete(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("delete from outbox_message where outbox_message_id in (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+}
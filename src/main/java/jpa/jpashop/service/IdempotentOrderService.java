@@ -0,0 +1,156 @@
+package jpa.jpashop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jpa.jpashop.domain.IdempotencyKey;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.exception.DuplicateRequestInProgressException;
+import jpa.jpashop.exception.IdempotencyKeyMismatchException;
+import jpa.jpashop.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/*
+멱등 키를 사용한 주문
+1. 메모리 캐시(최대 cache-size건)에 완료된 키가 있으면 DB도 거치지 않고 원래 주문 id를 반환
+2. idempotency_key 행을 트랜잭션 밖에서 INSERT 해서 키를 선점. 중복 키는 잠금 대기 없이 즉시 실패하므로
+   이미 완료된 키면 원래 주문 id를, 아직 처리 중이면 DuplicateRequestInProgressException을 돌려줌
+3. 선점에 성공한 요청만 주문을 실행하고, 같은 트랜잭션에서 키에 주문 id를 기록함 (주문이 실패하면 선점을 풀어서 재시도 가능)
+처리 중 상태로 pending-timeout보다 오래 남은 키는 서버 중단 등으로 버려진 것으로 보고 다시 선점할 수 있음
+키는 선점한 요청의 해시(회원 id, 주문 상품)와 함께 저장되므로, 같은 키로 내용이 다른 요청이 오면 IdempotencyKeyMismatchException(422)으로 거절함
+ */
+@Service
+public class IdempotentOrderService {
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, CompletedOrder> completedKeys;
+    private final Duration pendingTimeout;
+
+    public IdempotentOrderService(OrderService orderService,
+                                  IdempotencyKeyRepository idempotencyKeyRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${jpashop.idempotency.cache-size:100000}") long cacheSize,
+                                  @Value("${jpashop.idempotency.cache-ttl:24h}") Duration cacheTtl,
+                                  @Value("${jpashop.idempotency.pending-timeout:1m}") Duration pendingTimeout) {
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.completedKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        this.pendingTimeout = pendingTimeout;
+    }
+
+    public Long order(String idempotencyKey, Long memberId, List<OrderItemDto> orderItemList) {
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > IdempotencyKey.MAX_LENGTH) {
+            throw new IllegalArgumentException("멱등 키는 1 ~ " + IdempotencyKey.MAX_LENGTH + "자여야 합니다.");
+        }
+
+        String requestHash = requestHash(memberId, orderItemList);
+
+        CompletedOrder cached = completedKeys.getIfPresent(idempotencyKey);
+        if (cached != null) {
+            return cached.orderIdFor(requestHash);
+        }
+
+        if (!claim(idempotencyKey, requestHash)) {
+            return existingOrderId(idempotencyKey, requestHash);
+        }
+
+        Long orderId;
+        try {
+            orderId = transactionTemplate.execute(status -> {
+                Long id = orderService.order(memberId, orderItemList);
+                idempotencyKeyRepository.complete(idempotencyKey, id);
+                return id;
+            });
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.release(idempotencyKey);
+            throw e;
+        }
+
+        completedKeys.put(idempotencyKey, new CompletedOrder(orderId, requestHash));
+        return orderId;
+    }
+
+    // 회원 id와 주문 상품(상품 id, 수량)을 요청 순서대로 이어 붙인 문자열의 SHA-256
+    static String requestHash(Long memberId, List<OrderItemDto> orderItemList) {
+        StringBuilder request = new StringBuilder().append(memberId);
+        if (orderItemList != null) {
+            // 잘못된 요청(빈 줄)도 해시는 만들고, 거절은 OrderService의 요청 검증에 맡김
+            for (OrderItemDto orderItem : orderItemList) {
+                request.append('|');
+                if (orderItem != null) {
+                    request.append(orderItem.getItemId()).append(':').append(orderItem.getCount());
+                }
+            }
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    private boolean claim(String idempotencyKey, String requestHash) {
+        if (idempotencyKeyRepository.tryClaim(idempotencyKey, requestHash)) {
+            return true;
+        }
+        LocalDateTime abandonedBefore = LocalDateTime.now().minus(pendingTimeout);
+        return idempotencyKeyRepository.releaseIfAbandoned(idempotencyKey, abandonedBefore)
+                && idempotencyKeyRepository.tryClaim(idempotencyKey, requestHash);
+    }
+
+    private Long existingOrderId(String idempotencyKey, String requestHash) {
+        Optional<IdempotencyKeyRepository.Claim> claim = idempotencyKeyRepository.find(idempotencyKey);
+
+        if (claim.isPresent() && !claim.get().matches(requestHash)) {
+            throw new IdempotencyKeyMismatchException("멱등 키가 다른 주문 요청에 이미 사용되었습니다.");
+        }
+
+        if (claim.isPresent() && claim.get().isCompleted()) {
+            Long orderId = claim.get().getOrderId();
+            completedKeys.put(idempotencyKey, new CompletedOrder(orderId, requestHash));
+            return orderId;
+        }
+
+        // 조회 직전에 처리 중이던 요청이 실패해서 선점이 풀린 경우도 클라이언트가 다시 시도하면 됨
+        throw new DuplicateRequestInProgressException("같은 멱등 키의 주문이 처리 중입니다.");
+    }
+
+    private static class CompletedOrder {
+
+        private final Long orderId;
+        private final String requestHash;
+
+        private CompletedOrder(Long orderId, String requestHash) {
+            this.orderId = orderId;
+            this.requestHash = requestHash;
+        }
+
+        private Long orderIdFor(String requestHash) {
+            if (!this.requestHash.equals(requestHash)) {
+                throw new IdempotencyKeyMismatchException("멱등 키가 다른 주문 요청에 이미 사용되었습니다.");
+            }
+            return orderId;
+        }
+
+    }
+
+}
@@ -0,0 +1,235 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.config.ReadWriteRoutingDataSource;
+import jpa.jpashop.dto.ItemDto;
+import jpa.jpashop.event.ItemChangedEvent;
+import jpa.jpashop.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/*
+상품 카탈로그 인메모리 스냅샷 (jpashop.catalog-snapshot.enabled=true 일 때만 활성화)
+id 순으로 정렬된 id 배열과 불변 ItemDto 배열로 된 스냅샷을 volatile 참조 하나로 공개하고, 변경 시에는 배열을 복사해서 새 스냅샷으로 교체함 (copy-on-write)
+조회는 락 없이 이진 탐색 한 번이고, 적재할 때 만든 DTO를 그대로 돌려주므로 조회마다 객체를 만들지 않음
+
+- 상품 저장/수정/재고 변경이 커밋되면 ItemChangedEvent로 바뀐 id를 모아 두었다가 갱신 스레드가 한 번의 IN 쿼리로 반영
+  (반영에 실패하면 모아 둔 id를 되돌려 놓고 바로 전체를 다시 적재함)
+- 이벤트를 거치지 않은 변경(다른 서버, 직접 실행한 SQL 등)까지 포함해서 refresh-interval마다 전체를 다시 적재
+- 마지막 전체 적재 시점부터 max-staleness가 지나면 isFresh()가 false가 되어 호출부가 DB로 조회함 (전체 적재가 계속 실패해도 지연이 제한됨)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jpashop.catalog-snapshot.enabled", havingValue = "true")
+public class ItemCatalogSnapshot {
+
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long refreshIntervalMillis;
+    private final long maxStalenessNanos;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-snapshot-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> changedIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean applyScheduled = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    public ItemCatalogSnapshot(ItemRepository itemRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${jpashop.catalog-snapshot.refresh-interval:30s}") Duration refreshInterval,
+                               @Value("${jpashop.catalog-snapshot.max-staleness:60s}") Duration maxStaleness) {
+        this.itemRepository = itemRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::reloadSafely, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    public boolean isFresh() {
+        Snapshot current = snapshot;
+        return current != null && System.nanoTime() - current.loadedAt <= maxStalenessNanos;
+    }
+
+    public Optional<ItemDto> find(long itemId) {
+        Snapshot current = snapshot;
+        int idx = current == null ? -1 : current.indexOf(itemId);
+        if (idx < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(current.rows[idx]);
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.ids.length;
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        changedIds.add(event.getItemId());
+        if (applyScheduled.compareAndSet(false, true)) {
+            refresher.execute(this::applyChangesSafely);
+        }
+    }
+
+    // 전체 적재: 메모리에 엔티티가 쌓이지 않도록 id 순으로 나눠서 DTO로 읽음
+    void reload() {
+        long loadedAt = System.nanoTime();
+        changedIds.clear(); // 이 시점 이후 커밋된 변경은 다시 모여서 반영됨
+
+        List<ItemDto> rows = new ArrayList<>();
+        List<ItemDto> chunk;
+        long afterId = 0;
+        do {
+            long from = afterId;
+            chunk = readFromPrimary(() -> itemRepository.findItemDtos(from, LOAD_CHUNK_SIZE));
+            rows.addAll(chunk);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getItemId();
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE);
+
+        snapshot = Snapshot.of(rows, loadedAt);
+    }
+
+    /*
+    커밋된 변경 반영: 바뀐 상품만 다시 읽어서 기존 배열 복사본에 덮어씀 (새 상품은 id 순서에 맞게 끼워 넣음)
+    조회 전에 id를 꺼내야 조회 도중 다시 바뀐 상품이 다음 반영에서 빠지지 않음
+    새 스냅샷은 조회와 병합이 모두 끝난 뒤에만 공개하고, 실패하면 꺼낸 id를 되돌려 놓아서 변경이 버려지지 않게 함
+     */
+    void applyChanges() {
+        applyScheduled.set(false);
+        Snapshot current = snapshot;
+        if (current == null || changedIds.isEmpty()) {
+            return; // 첫 전체 적재가 끝나기 전이면 그 결과에 이미 포함됨
+        }
+
+        List<Long> ids = new ArrayList<>(changedIds);
+        changedIds.removeAll(ids);
+        try {
+            Snapshot next = current.with(readFromPrimary(() -> itemRepository.findItemDtosByIds(ids)));
+            snapshot = next;
+        } catch (RuntimeException e) {
+            changedIds.addAll(ids);
+            throw e;
+        }
+    }
+
+    // 방금 커밋한 변경을 복제 지연 없이 읽어야 하므로 replica가 있어도 primary에서 읽음
+    private List<ItemDto> readFromPrimary(Supplier<List<ItemDto>> query) {
+        return ReadWriteRoutingDataSource.readFromPrimary(() -> readOnlyTransaction.execute(status -> query.get()));
+    }
+
+    private void reloadSafely() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("카탈로그 스냅샷 전체 적재 실패", e);
+        }
+    }
+
+    private void applyChangesSafely() {
+        try {
+            applyChanges();
+        } catch (RuntimeException e) {
+            log.warn("카탈로그 스냅샷 변경 반영 실패 (전체 적재로 다시 맞춤)", e);
+            reloadSafely();
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long[] ids;
+        private final ItemDto[] rows;
+        private final long loadedAt;
+
+        private Snapshot(int size, long loadedAt) {
+            this.ids = new long[size];
+            this.rows = new ItemDto[size];
+            this.loadedAt = loadedAt;
+        }
+
+        // rows는 id 오름차순
+        private static Snapshot of(List<ItemDto> rows, long loadedAt) {
+            Snapshot snapshot = new Snapshot(rows.size(), loadedAt);
+            for (int i = 0; i < rows.size(); i++) {
+                snapshot.set(i, rows.get(i));
+            }
+            return snapshot;
+        }
+
+        private int indexOf(long itemId) {
+            return Arrays.binarySearch(ids, itemId);
+        }
+
+        private Snapshot with(List<ItemDto> changedRows) {
+            List<ItemDto> added = new ArrayList<>();
+            for (ItemDto row : changedRows) {
+                if (indexOf(row.getItemId()) < 0) {
+                    added.add(row);
+                }
+            }
+            added.sort(Comparator.comparing(ItemDto::getItemId));
+
+            // 기존 행과 새 행을 id 순으로 병합한 뒤 바뀐 행을 덮어씀 (전체 적재 시각은 그대로 유지)
+            Snapshot next = new Snapshot(ids.length + added.size(), loadedAt);
+            int i = 0, j = 0, k = 0;
+            while (i < ids.length || j < added.size()) {
+                if (j == added.size() || (i < ids.length && ids[i] < added.get(j).getItemId())) {
+                    next.ids[k] = ids[i];
+                    next.rows[k++] = rows[i++];
+                } else {
+                    next.set(k++, added.get(j++));
+                }
+            }
+            for (ItemDto row : changedRows) {
+                next.set(next.indexOf(row.getItemId()), row);
+            }
+            return next;
+        }
+
+        private void set(int idx, ItemDto row) {
+            ids[idx] = row.getItemId();
+            rows[idx] = row;
+        }
+
+    }
+
+}
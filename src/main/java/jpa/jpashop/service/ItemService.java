@@ -1,24 +1,34 @@
 package jpa.jpashop.service;
 
 import jpa.jpashop.domain.item.Item;
+import jpa.jpashop.dto.ItemDto;
+import jpa.jpashop.dto.ItemSearchDto;
 import jpa.jpashop.dto.ItemUpdateDto;
+import jpa.jpashop.event.ItemChangedEvent;
 import jpa.jpashop.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.NoSuchElementException;
 
 @Service
 @RequiredArgsConstructor
 public class ItemService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<ItemCatalogSnapshot> catalogSnapshot;
 
     @Transactional
     public void saveItem(Item item) {
         itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -30,11 +40,36 @@ public class ItemService {
     public void updateItem(Long itemId, ItemUpdateDto updateParam) {
         Item item = itemRepository.findById(itemId).orElseThrow();
         item.update(updateParam.getName(), updateParam.getPrice(), updateParam.getStock());
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
     }
 
     @Transactional(readOnly = true)
-    public List<Item> findItems() {
-        return itemRepository.findAll();
+    public List<ItemDto> findCatalog(ItemSearchDto searchCond) {
+        if (searchCond.getLimit() < 1 || searchCond.getLimit() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("조회 건수는 1 ~ " + MAX_PAGE_SIZE + "건이어야 합니다.");
+        }
+        return itemRepository.findCatalog(searchCond);
+    }
+
+    /*
+    카탈로그 스냅샷이 켜져 있고 허용 지연 이내면 DB를 거치지 않고 응답
+    스냅샷에 아직 반영되지 않은 신규 상품이거나 스냅샷이 오래된 경우에만 DB에서 조회
+    (트랜잭션을 열면 스냅샷에서 응답할 때도 커넥션을 잡으므로 트랜잭션 없이 조회)
+     */
+    public ItemDto findCatalogItem(Long id) {
+        ItemCatalogSnapshot snapshot = catalogSnapshot.getIfAvailable();
+        if (snapshot != null && snapshot.isFresh()) {
+            return snapshot.find(id).orElseGet(() -> findCatalogItemFromDb(id));
+        }
+        return findCatalogItemFromDb(id);
+    }
+
+    private ItemDto findCatalogItemFromDb(Long id) {
+        List<ItemDto> found = itemRepository.findItemDtosByIds(List.of(id));
+        if (found.isEmpty()) {
+            throw new NoSuchElementException("존재하지 않는 상품입니다: " + id);
+        }
+        return found.get(0);
     }
 
 }
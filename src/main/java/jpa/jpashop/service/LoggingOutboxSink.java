@@ -0,0 +1,19 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.OutboxMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+// 기본 sink: 외부 시스템 없이 로그로만 남김
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            log.info("outbox {} {}#{} {}", message.getEventType(), message.getAggregateType(), message.getAggregateId(), message.getPayload());
+        }
+    }
+
+}
@@ -2,20 +2,26 @@ package jpa.jpashop.service;
 
 import jpa.jpashop.domain.Member;
 import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.event.MemberChangedEvent;
+import jpa.jpashop.repository.MemberNameGramRepository;
 import jpa.jpashop.repository.MemberRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MemberService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final MemberRepository memberRepository;
+    private final MemberNameGramRepository memberNameGramRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Long join(MemberDto memberDto) {
@@ -24,6 +30,7 @@ public class MemberService {
         Member member = new Member();
         member.update(memberDto.getName(), memberDto.getAddress());
         memberRepository.save(member);
+        memberNameGramRepository.index(member);
         return member.getId();
     }
 
@@ -34,11 +41,11 @@ public class MemberService {
     }
 
     @Transactional(readOnly = true)
-    public List<MemberDto> findMembers() {
-        List<Member> memberList = memberRepository.findAll();
-        return memberList.stream()
-                .map(m -> new MemberDto(m.getName(), m.getAddress()))
-                .collect(Collectors.toList());
+    public List<MemberDto> findMembers(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("조회 건수는 1 ~ " + MAX_PAGE_SIZE + "건이어야 합니다.");
+        }
+        return memberRepository.findMemberDtos(cursor, limit);
     }
 
     private void validateDuplicateName(String name) {
@@ -51,7 +58,14 @@ public class MemberService {
     @Transactional
     public void updateMember(Long memberId, MemberDto memberDto) {
         Member member = memberRepository.findById(memberId).orElseThrow();
+        boolean nameChanged = !member.getName().equals(memberDto.getName());
         member.update(memberDto.getName(), memberDto.getAddress());
+
+        // 이름 검색 색인과 주문 요약의 회원 이름은 이름이 바뀐 경우에만 다시 만듦
+        if (nameChanged) {
+            memberNameGramRepository.reindex(member);
+            eventPublisher.publishEvent(new MemberChangedEvent(memberId));
+        }
     }
 
 }
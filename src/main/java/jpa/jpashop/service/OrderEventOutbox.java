@@ -0,0 +1,96 @@
+package jpa.jpashop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpa.jpashop.domain.Order;
+import jpa.jpashop.domain.OrderItem;
+import jpa.jpashop.domain.OrderStatus;
+import jpa.jpashop.domain.OutboxMessage;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+주문 생성/취소 메시지를 아웃박스에 기록 (OrderService의 트랜잭션 안에서 호출)
+payload의 version은 주문별 이벤트 순번 (생성 1, 취소 2). 주문은 생성 → 취소 한 방향으로만 바뀌므로 상태로 순번이 정해짐
+전달 순서가 뒤바뀔 수 있으므로 수신 측은 주문별로 마지막으로 반영한 version보다 큰 메시지만 반영함
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+    public static final String AGGREGATE_TYPE = "Order";
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+    public static final String ORDER_CANCELED = "ORDER_CANCELED";
+
+    private static final int ORDER_CREATED_VERSION = 1;
+    private static final int ORDER_CANCELED_VERSION = 2;
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public void orderCreated(Order order) {
+        Map<String, Object> payload = basePayload(order, ORDER_CREATED_VERSION);
+        payload.put("totalPrice", order.getTotalPrice());
+        payload.put("orderDate", order.getOrderDate());
+        payload.put("orderItems", orderItems(order.getOrderItems()));
+        append(order.getId(), ORDER_CREATED, payload);
+    }
+
+    public void orderCanceled(Order order) {
+        Map<String, Object> payload = basePayload(order, ORDER_CANCELED_VERSION);
+        payload.put("orderItems", orderItems(order.getOrderItems()));
+        append(order.getId(), ORDER_CANCELED, payload);
+    }
+
+    // 일괄 취소처럼 엔티티를 로딩하지 않고 상태만 바꾼 주문용. 주문 상품은 DTO로 받음
+    public void orderCanceled(Long orderId, Long memberId, List<OrderItemDto> orderItems) {
+        Map<String, Object> payload = basePayload(orderId, memberId, OrderStatus.CANCEL, ORDER_CANCELED_VERSION);
+        payload.put("orderItems", orderItems.stream()
+                .map(oi -> orderItemLine(oi.getItemId(), oi.getOrderPrice(), oi.getCount()))
+                .collect(Collectors.toList()));
+        append(orderId, ORDER_CANCELED, payload);
+    }
+
+    private Map<String, Object> basePayload(Order order, int version) {
+        return basePayload(order.getId(), order.getMember().getId(), order.getStatus(), version);
+    }
+
+    private Map<String, Object> basePayload(Long orderId, Long memberId, OrderStatus status, int version) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("version", version);
+        payload.put("memberId", memberId);
+        payload.put("status", status);
+        return payload;
+    }
+
+    private List<Map<String, Object>> orderItems(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .map(oi -> orderItemLine(oi.getItem().getId(), oi.getOrderPrice(), oi.getCount()))
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Object> orderItemLine(Long itemId, int orderPrice, int count) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("itemId", itemId);
+        line.put("orderPrice", orderPrice);
+        line.put("count", count);
+        return line;
+    }
+
+    private void append(Long orderId, String eventType, Map<String, Object> payload) {
+        try {
+            outboxRepository.append(new OutboxMessage(AGGREGATE_TYPE, orderId, eventType, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("아웃박스 메시지 직렬화 실패", e);
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.dto.BulkOrderResultDto;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.dto.OrderRequestDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/*
+그룹 커밋 주문 접수 (jpashop.order-intake.enabled=true 일 때만 활성화)
+호출자는 주문을 대기열에 넣고 Future를 받음. 커밋 스레드 하나가 대기열을 최대 maxBatchSize건, 최대 maxLatency 동안 모아서
+bulkOrder 트랜잭션 한 번으로 저장하므로 주문마다 트랜잭션/커밋 비용을 치르지 않음
+배치 전체가 실패하거나 배치 안에서 실패한 주문은 한 건씩 다시 order()로 처리해서 원래 예외를 그대로 Future에 전달함
+대기열이 가득 차면 offerTimeout 동안 기다린 뒤 RejectedExecutionException으로 거절 (backpressure)
+커밋 스레드가 멈추면 (종료, 인터럽트) 처리하지 못한 주문의 Future는 모두 RejectedExecutionException으로 완료되므로 호출자가 무한정 기다리지 않음
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jpashop.order-intake.enabled", havingValue = "true")
+public class OrderIntakePipeline {
+
+    private final OrderService orderService;
+    private final ThreadFactory committerFactory;
+    private final BlockingQueue<PendingOrder> queue;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final long offerTimeoutNanos;
+
+    // submit의 "접수 중인지 확인 + 대기열에 넣기"와 접수 중단이 서로 끼어들지 않게 함 (중단 이후에는 대기열에 새 주문이 들어오지 않음)
+    private final ReadWriteLock intakeLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread committer;
+
+    @Autowired
+    public OrderIntakePipeline(OrderService orderService,
+                               @Value("${jpashop.order-intake.queue-capacity:10000}") int queueCapacity,
+                               @Value("${jpashop.order-intake.max-batch-size:100}") int maxBatchSize,
+                               @Value("${jpashop.order-intake.max-latency:5ms}") Duration maxLatency,
+                               @Value("${jpashop.order-intake.offer-timeout:100ms}") Duration offerTimeout) {
+        this(orderService, queueCapacity, maxBatchSize, maxLatency, offerTimeout,
+                runnable -> new Thread(runnable, "order-intake-committer"));
+    }
+
+    // 커밋 스레드 생성 방식을 바꿀 때 사용 (테스트에서 커밋 스레드를 직접 다뤄야 할 때)
+    OrderIntakePipeline(OrderService orderService, int queueCapacity, int maxBatchSize,
+                        Duration maxLatency, Duration offerTimeout, ThreadFactory committerFactory) {
+        this.orderService = orderService;
+        this.committerFactory = committerFactory;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+    }
+
+    public CompletableFuture<Long> submit(Long memberId, List<OrderItemDto> orderItemList) {
+        PendingOrder pendingOrder = new PendingOrder(new OrderRequestDto(memberId, orderItemList));
+
+        intakeLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new RejectedExecutionException("주문 접수가 중단되었습니다.");
+            }
+            if (!queue.offer(pendingOrder, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("주문 접수 대기열이 가득 찼습니다.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("주문 접수 중 인터럽트가 발생했습니다.", e);
+        } finally {
+            intakeLock.readLock().unlock();
+        }
+
+        return pendingOrder.future;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        committer = committerFactory.newThread(this::runLoop);
+        committer.start();
+    }
+
+    // 종료 시 새 주문은 받지 않고, 이미 대기열에 들어온 주문까지는 모두 처리한 뒤 멈춤
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        closeIntake();
+        committer.join();
+    }
+
+    private void closeIntake() {
+        intakeLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            intakeLock.writeLock().unlock();
+        }
+    }
+
+    private void runLoop() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+
+                    batch.add(first);
+                    fillBatch(batch);
+                    commit(batch);
+                } catch (InterruptedException e) {
+                    // 대기열에서 꺼냈지만 아직 커밋하지 않은 주문은 실패로 완료하고 멈춤
+                    Thread.currentThread().interrupt();
+                    reject(batch, "주문 접수가 인터럽트로 중단되었습니다.");
+                    break;
+                } catch (RuntimeException e) {
+                    log.error("주문 배치 처리 중 예외 발생", e);
+                    batch.forEach(p -> p.future.completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            // 접수를 닫은 뒤에 남은 주문을 비우므로, 이후에 대기열에 들어오는 주문은 없음
+            closeIntake();
+            List<PendingOrder> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            reject(remaining, "주문 접수가 중단되었습니다.");
+        }
+    }
+
+    private void reject(List<PendingOrder> pendingOrders, String message) {
+        RejectedExecutionException e = new RejectedExecutionException(message);
+        pendingOrders.forEach(p -> p.future.completeExceptionally(e));
+    }
+
+    // 첫 주문이 들어온 시점부터 maxLatency가 지나거나 maxBatchSize가 찰 때까지 모음
+    private void fillBatch(List<PendingOrder> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxLatencyNanos;
+
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        List<BulkOrderResultDto> results;
+        try {
+            results = orderService.bulkOrder(batch.stream().map(p -> p.request).collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            log.warn("주문 배치 커밋 실패, 한 건씩 다시 처리합니다. size={}", batch.size(), e);
+            batch.forEach(this::commitOne);
+            return;
+        }
+
+        for (BulkOrderResultDto result : results) {
+            PendingOrder pendingOrder = batch.get(result.getIndex());
+            if (result.isSuccess()) {
+                pendingOrder.future.complete(result.getOrderId());
+            } else {
+                commitOne(pendingOrder);
+            }
+        }
+    }
+
+    private void commitOne(PendingOrder pendingOrder) {
+        try {
+            OrderRequestDto request = pendingOrder.request;
+            pendingOrder.future.complete(orderService.order(request.getMemberId(), request.getOrderItems()));
+        } catch (RuntimeException e) {
+            pendingOrder.future.completeExceptionally(e);
+        }
+    }
+
+    private static class PendingOrder {
+        private final OrderRequestDto request;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        private PendingOrder(OrderRequestDto request) {
+            this.request = request;
+        }
+    }
+
+}
@@ -1,22 +1,49 @@
 package jpa.jpashop.service;
 
+import jpa.jpashop.config.CacheConfig;
 import jpa.jpashop.domain.Delivery;
+import jpa.jpashop.domain.DeliveryStatus;
 import jpa.jpashop.domain.Member;
 import jpa.jpashop.domain.Order;
 import jpa.jpashop.domain.OrderItem;
+import jpa.jpashop.domain.OrderStatus;
 import jpa.jpashop.domain.item.Item;
+import jpa.jpashop.dto.BulkCancelResultDto;
+import jpa.jpashop.dto.BulkOrderResultDto;
+import jpa.jpashop.dto.OrderCancelCandidateDto;
 import jpa.jpashop.dto.OrderDto;
 import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.dto.OrderRequestDto;
 import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.dto.OrderSummaryDto;
+import jpa.jpashop.event.OrderChangedEvent;
+import jpa.jpashop.exception.InvalidOrderRequestException;
+import jpa.jpashop.exception.NotEnoughStockException;
 import jpa.jpashop.repository.ItemRepository;
 import jpa.jpashop.repository.MemberRepository;
 import jpa.jpashop.repository.OrderRepository;
+import jpa.jpashop.repository.OrderSummaryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.*;
 
@@ -24,12 +51,106 @@ import static java.util.stream.Collectors.*;
 @RequiredArgsConstructor
 public class OrderService {
 
+    public static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int BULK_FLUSH_SIZE = 100;
+    private static final int BULK_CANCEL_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderEventOutbox orderEventOutbox;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ORDER_SEARCH, allEntries = true)
     public Long order(Long memberId, List<OrderItemDto> orderItemList) {
+        Order order = createOrder(memberId, orderItemList);
+
+        /*
+        주문 영속화
+        Delivery와 OrderItem들은 CascadeType.ALL 옵션에 의해 Order가 영속화 될 때 자동적으로 함께 영속화 됨
+        그래서 따로 DeliveryRepository나 OrderItemRepository를 두고 별도로 영속화 메서드를 정의할 필요가 없음
+         */
+        orderRepository.save(order);
+        orderEventOutbox.orderCreated(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(List.of(order.getId())));
+
+        return order.getId();
+    }
+
+    /*
+    일괄 주문
+    하나의 트랜잭션에서 여러 주문을 영속화하고, BULK_FLUSH_SIZE 건마다 flush/clear 해서
+    INSERT를 JDBC batch로 묶어 보내고 영속성 컨텍스트가 계속 커지지 않게 함 (hibernate.jdbc.batch_size 설정 필요)
+    재고가 부족한 주문은 예약했던 재고를 되돌리므로 다른 주문에 영향 없이 실패 결과만 남김
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ORDER_SEARCH, allEntries = true)
+    public List<BulkOrderResultDto> bulkOrder(List<OrderRequestDto> orderRequestList) {
+        List<BulkOrderResultDto> results = new ArrayList<>(orderRequestList.size());
+        List<Long> orderIds = new ArrayList<>(orderRequestList.size());
+
+        for (int i = 0; i < orderRequestList.size(); i++) {
+            OrderRequestDto orderRequest = orderRequestList.get(i);
+
+            // 형식이 잘못된 요청은 createOrder()가 DB를 건드리기 전에 거절하므로 예외가 트랜잭션 전체를 롤백시키지 않음
+            try {
+                if (orderRequest == null) {
+                    throw new InvalidOrderRequestException("주문 요청이 없습니다.");
+                }
+                Order order = createOrder(orderRequest.getMemberId(), orderRequest.getOrderItems());
+                orderRepository.save(order);
+                orderEventOutbox.orderCreated(order);
+                results.add(BulkOrderResultDto.success(i, order.getId()));
+                orderIds.add(order.getId());
+            } catch (InvalidOrderRequestException | NoSuchElementException | NotEnoughStockException e) {
+                results.add(BulkOrderResultDto.failure(i, e.getMessage()));
+            }
+
+            if ((i + 1) % BULK_FLUSH_SIZE == 0) {
+                orderRepository.flushAndClear();
+            }
+        }
+
+        if (!orderIds.isEmpty()) {
+            eventPublisher.publishEvent(new OrderChangedEvent(orderIds));
+        }
+        return results;
+    }
+
+    // 주문 요청을 검증하고, 잘못된 경우 실패 사유를 반환 (음수 수량은 재고 차감 UPDATE에서 재고를 늘려버리므로 반드시 막아야 함)
+    private static String validate(Long memberId, List<OrderItemDto> orderItemList) {
+        if (memberId == null) {
+            return "회원 id가 없습니다.";
+        }
+
+        if (orderItemList == null || orderItemList.isEmpty()) {
+            return "주문 상품이 없습니다.";
+        }
+
+        for (OrderItemDto orderItemDto : orderItemList) {
+            if (orderItemDto == null || orderItemDto.getItemId() == null) {
+                return "상품 id가 없습니다.";
+            }
+
+            if (orderItemDto.getCount() <= 0) {
+                return "주문 수량은 1 이상이어야 합니다.";
+            }
+        }
+
+        return null;
+    }
+
+    // 단건, 일괄, 그룹 커밋 접수 모두 이 메서드를 거치므로 요청 검증도 여기서 함
+    private Order createOrder(Long memberId, List<OrderItemDto> orderItemList) {
+        String invalidReason = validate(memberId, orderItemList);
+        if (invalidReason != null) {
+            throw new InvalidOrderRequestException(invalidReason);
+        }
+
         // Member 조회
         Member member = memberRepository.findById(memberId).orElseThrow();
 
@@ -37,11 +158,17 @@ public class OrderService {
         Delivery delivery = new Delivery();
         delivery.setAddress(member.getAddress());
 
+        // 주문에 포함된 상품들을 한 번에 조회
+        Map<Long, Item> items = findItems(orderItemList);
+
+        // 주문 상품을 만들기 전에 재고부터 DB에서 원자적으로 예약
+        reserveStock(items, orderItemList);
+
         // OrderItemDto를 통해 OrderItem을 생성하고 컬렉션에 모음
         List<OrderItem> orderItems = new ArrayList<>();
         for (OrderItemDto orderItemDto : orderItemList) {
-            Item item = itemRepository.findById(orderItemDto.getItemId()).orElseThrow();
-            OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), orderItemDto.getCount());
+            Item item = items.get(orderItemDto.getItemId());
+            OrderItem orderItem = OrderItem.createReservedOrderItem(item, item.getPrice(), orderItemDto.getCount());
 
             orderItems.add(orderItem);
         }
@@ -49,34 +176,230 @@ public class OrderService {
         OrderItem[] arr = orderItems.toArray(OrderItem[]::new);
 
         // 주문 생성
-        Order order = Order.createOrder(member, delivery, arr);
+        return Order.createOrder(member, delivery, arr);
+    }
 
-        /*
-        주문 영속화
-        Delivery와 OrderItem들은 CascadeType.ALL 옵션에 의해 Order가 영속화 될 때 자동적으로 함께 영속화 됨
-        그래서 따로 DeliveryRepository나 OrderItemRepository를 두고 별도로 영속화 메서드를 정의할 필요가 없음
-         */
-        orderRepository.save(order);
+    // 장바구니 크기와 상관없이 IN 쿼리 한 번으로 조회하고, 하나라도 없는 상품이 있으면 재고를 건드리기 전에 바로 실패
+    private Map<Long, Item> findItems(List<OrderItemDto> orderItemList) {
+        Set<Long> itemIds = orderItemList.stream().map(OrderItemDto::getItemId).collect(toCollection(HashSet::new));
 
-        return order.getId();
+        Map<Long, Item> items = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(toMap(Item::getId, Function.identity()));
+
+        if (items.size() != itemIds.size()) {
+            itemIds.removeAll(items.keySet());
+            throw new NoSuchElementException("존재하지 않는 상품입니다. " + itemIds);
+        }
+
+        return items;
+    }
+
+    /*
+    재고 예약
+    같은 상품이 여러 줄에 걸쳐 주문될 수 있으므로 상품별 수량을 합산하고, 상품 id 오름차순으로 차감함
+    모든 트랜잭션이 같은 순서로 행 잠금을 잡기 때문에 서로 다른 장바구니끼리 교착 상태에 빠지지 않음
+    중간에 재고가 부족하면 이 주문에서 이미 차감한 재고를 되돌림 (일괄 주문에서 실패한 주문이 흔적을 남기지 않도록)
+     */
+    private void reserveStock(Map<Long, Item> items, List<OrderItemDto> orderItemList) {
+        Map<Item, Integer> quantities = new TreeMap<>(Comparator.comparing(Item::getId));
+        for (OrderItemDto orderItemDto : orderItemList) {
+            quantities.merge(items.get(orderItemDto.getItemId()), orderItemDto.getCount(), Integer::sum);
+        }
+
+        Map<Item, Integer> reserved = new LinkedHashMap<>();
+        for (Map.Entry<Item, Integer> entry : quantities.entrySet()) {
+            if (!itemRepository.decreaseStock(entry.getKey(), entry.getValue())) {
+                reserved.forEach(itemRepository::increaseStock);
+                throw new NotEnoughStockException("재고는 0보다 낮을 수 없습니다.");
+            }
+
+            reserved.put(entry.getKey(), entry.getValue());
+        }
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ORDER_SEARCH, allEntries = true)
     public void cancelOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId).orElseThrow();
+        // 같은 주문의 동시 취소가 재고를 두 번 복구하지 않도록 주문 행을 잠그고, 잠근 뒤의 상태로 이미 취소됐는지 판단
+        Order order = orderRepository.findByIdForUpdate(orderId).orElseThrow();
 
-        // JPA의 dirty-checking 덕분에 따로 쿼리를 작성하지 않아도 변경 사항을 반영해줌
+        // 주문 상태는 JPA의 dirty-checking 덕분에 따로 쿼리를 작성하지 않아도 변경 사항을 반영해줌
         order.cancelOrder();
+
+        // 재고는 동시 주문과 갱신이 유실되지 않도록 DB에서 원자적으로 복구 (예약과 같은 id 오름차순)
+        Map<Item, Integer> quantities = new TreeMap<>(Comparator.comparing(Item::getId));
+        for (OrderItem orderItem : order.getOrderItems()) {
+            quantities.merge(orderItem.getItem(), orderItem.getCount(), Integer::sum);
+        }
+        quantities.forEach(itemRepository::increaseStock);
+        orderEventOutbox.orderCanceled(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(List.of(orderId)));
+    }
+
+    /*
+    일괄 취소
+    주문을 한 건씩 로딩해서 dirty-checking으로 바꾸는 대신, BULK_CANCEL_CHUNK_SIZE 건 단위로
+    1. 주문 행을 잠그고 상태/배송 상태를 조회해서 없는 주문, 이미 취소된 주문, 배송 완료된 주문은 건너뜀 (결과에 이유와 함께 남김)
+    2. 나머지 주문의 상태를 UPDATE 한 번으로 변경
+    3. 재고는 상품별로 수량을 합산해서 UPDATE 한 번으로 복구
+    주문 상품은 아웃박스 메시지와 복구할 상품 목록을 위해 IN 쿼리로 한 번만 조회함
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ORDER_SEARCH, allEntries = true)
+    public BulkCancelResultDto cancelOrders(List<Long> orderIds) {
+        BulkCancelResultDto result = new BulkCancelResultDto();
+        List<Long> distinctIds = orderIds.stream().distinct().collect(toList());
+
+        for (int from = 0; from < distinctIds.size(); from += BULK_CANCEL_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + BULK_CANCEL_CHUNK_SIZE, distinctIds.size()));
+            cancelChunk(chunk, result);
+        }
+
+        publishCanceled(result);
+        return result;
+    }
+
+    // 검색 조건에 해당하는 ORDER 상태 주문을 모두 취소. 전체 주문이 취소되지 않도록 회원 이름이나 양쪽이 닫힌 주문 일시 범위(최대 31일)는 필수
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ORDER_SEARCH, allEntries = true)
+    public BulkCancelResultDto cancelOrders(OrderSearchDto searchCond) {
+        if (!searchCond.hasNarrowingCondition()) {
+            throw new IllegalArgumentException("일괄 취소 조건은 회원 이름이나 " + OrderSearchDto.MAX_BULK_CANCEL_PERIOD.toDays() + "일 이내의 주문 일시 범위가 필요합니다.");
+        }
+
+        BulkCancelResultDto result = new BulkCancelResultDto();
+        Long afterId = null;
+        List<Long> chunk;
+
+        do {
+            chunk = orderRepository.findCancelableOrderIds(searchCond, afterId, BULK_CANCEL_CHUNK_SIZE);
+            if (!chunk.isEmpty()) {
+                cancelChunk(chunk, result);
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == BULK_CANCEL_CHUNK_SIZE);
+
+        publishCanceled(result);
+        return result;
     }
 
+    private void cancelChunk(List<Long> orderIds, BulkCancelResultDto result) {
+        // 벌크 UPDATE는 영속성 컨텍스트를 거치지 않으므로 이미 로딩된 주문/상품이 남아 있지 않게 비움
+        orderRepository.flushAndClear();
+
+        Map<Long, OrderCancelCandidateDto> candidates = orderRepository.lockCancelCandidates(orderIds)
+                .stream()
+                .collect(toMap(OrderCancelCandidateDto::getOrderId, Function.identity()));
+
+        List<Long> cancelIds = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            OrderCancelCandidateDto candidate = candidates.get(orderId);
+
+            if (candidate == null) {
+                result.skipped(orderId, BulkCancelResultDto.SkipReason.NOT_FOUND);
+            } else if (candidate.getOrderStatus() == OrderStatus.CANCEL) {
+                result.skipped(orderId, BulkCancelResultDto.SkipReason.ALREADY_CANCELED);
+            } else if (candidate.getDeliveryStatus() == DeliveryStatus.COMPLETE) {
+                result.skipped(orderId, BulkCancelResultDto.SkipReason.DELIVERY_COMPLETE);
+            } else {
+                cancelIds.add(orderId);
+            }
+        }
+
+        if (cancelIds.isEmpty()) {
+            return;
+        }
+
+        orderRepository.cancelAll(cancelIds);
+
+        Map<Long, List<OrderItemDto>> orderItems = orderRepository.findOrderItemDtos(cancelIds)
+                .stream()
+                .collect(groupingBy(OrderItemDto::getOrderId));
+        Set<Long> itemIds = orderItems.values().stream()
+                .flatMap(List::stream)
+                .map(OrderItemDto::getItemId)
+                .collect(toCollection(TreeSet::new));
+        if (!itemIds.isEmpty()) {
+            itemRepository.increaseStockForOrders(cancelIds, itemIds);
+        }
+
+        for (Long orderId : cancelIds) {
+            orderEventOutbox.orderCanceled(orderId, candidates.get(orderId).getMemberId(), orderItems.getOrDefault(orderId, List.of()));
+            result.canceled(orderId);
+        }
+    }
+
+    private void publishCanceled(BulkCancelResultDto result) {
+        if (!result.getCanceledOrderIds().isEmpty()) {
+            eventPublisher.publishEvent(new OrderChangedEvent(result.getCanceledOrderIds()));
+        }
+    }
+
+    /*
+    대시보드처럼 같은 조건으로 반복되는 조회는 캐시에서 응답. 주문/취소가 커밋되면 전체 무효화
+    캐시된 결과는 모든 호출자가 같은 인스턴스를 공유하므로 목록(주문 상품 목록 포함)은 수정할 수 없게 만들어서 반환함
+     */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ORDER_SEARCH, key = "#searchCond.toCacheKey()")
     public List<OrderDto> searchOrder(OrderSearchDto searchCond) {
 //        List<Order> orderList = orderRepository.findBySearchCond(searchCond);
 //        return orderList
 //                .stream()
 //                .map(OrderDto::new)
 //                .collect(toList());
-        return orderRepository.findBySearchCondV2(searchCond);
+        List<OrderDto> orderDtoList = orderRepository.findBySearchCondV2(searchCond);
+        for (OrderDto orderDto : orderDtoList) {
+            if (orderDto.getOrderItems() != null) {
+                orderDto.setOrderItems(List.copyOf(orderDto.getOrderItems()));
+            }
+        }
+        return List.copyOf(orderDtoList);
+    }
+
+    // order_summary 읽기 모델에서 조회 (조인, 주문 상품 추가 조회 없음). 커밋 직후의 주문은 아주 잠깐 빠져 있을 수 있음
+    @Transactional(readOnly = true)
+    public List<OrderSummaryDto> searchOrderSummaries(OrderSearchDto searchCond) {
+        return orderSummaryRepository.search(searchCond);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDto> findOrderHistory(Long memberId, String cursor, long limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("조회 건수는 1 ~ " + MAX_HISTORY_PAGE_SIZE + "건이어야 합니다.");
+        }
+        return orderRepository.findOrderHistory(memberId, cursor, limit);
+    }
+
+    /*
+    주문 전체 내보내기
+    주문은 커서로 한 건씩 읽고, 주문 상품은 EXPORT_CHUNK_SIZE 단위로 모아서 IN 쿼리로 채운 뒤 consumer에 넘김
+    consumer가 청크를 바로 출력하고 버리면 힙에는 항상 청크 하나 분량만 남음
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(OrderSearchDto searchCond, Consumer<List<OrderDto>> chunkConsumer) {
+        try (Stream<OrderDto> orderStream = orderRepository.streamOrderDtos(searchCond, EXPORT_CHUNK_SIZE)) {
+            List<OrderDto> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            Iterator<OrderDto> iterator = orderStream.iterator();
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    flushChunk(chunk, chunkConsumer);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                flushChunk(chunk, chunkConsumer);
+            }
+        }
+    }
+
+    private void flushChunk(List<OrderDto> chunk, Consumer<List<OrderDto>> chunkConsumer) {
+        orderRepository.fillOrderItems(chunk);
+        chunkConsumer.accept(chunk);
+        chunk.clear();
     }
 
 }
@@ -0,0 +1,91 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.event.MemberChangedEvent;
+import jpa.jpashop.event.OrderChangedEvent;
+import jpa.jpashop.repository.OrderSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+order_summary 읽기 모델 갱신
+- 주문/취소 트랜잭션이 커밋된 뒤 OrderChangedEvent를 받아 해당 주문의 요약 행을 새 트랜잭션에서 다시 계산함
+  (갱신이 실패해도 이미 커밋된 주문에는 영향이 없고 로그만 남김. 누락분은 재구축으로 복구)
+- 회원 이름 변경이 커밋되면 MemberChangedEvent를 받아 그 회원의 모든 요약 행을 같은 방식으로 다시 계산함 (이름 검색의 LIKE 재확인이 옛 이름으로 걸러지지 않게)
+- --rebuild-order-summary 옵션으로 기동하면 전체 주문을 REBUILD_CHUNK_SIZE 건씩 나눠서 다시 만듦 (백필, 복구용)
+ */
+@Slf4j
+@Component
+public class OrderSummaryProjector implements ApplicationRunner {
+
+    public static final String REBUILD_OPTION = "rebuild-order-summary";
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final TransactionTemplate requiresNew;
+
+    public OrderSummaryProjector(OrderSummaryRepository orderSummaryRepository, PlatformTransactionManager transactionManager) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        try {
+            requiresNew.executeWithoutResult(status -> orderSummaryRepository.refresh(event.getOrderIds()));
+        } catch (RuntimeException e) {
+            log.error("주문 요약 갱신 실패 (--{} 로 재구축 필요). orderIds={}", REBUILD_OPTION, event.getOrderIds(), e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        try {
+            requiresNew.executeWithoutResult(status ->
+                    orderSummaryRepository.refresh(orderSummaryRepository.findOrderIdsByMember(event.getMemberId())));
+        } catch (RuntimeException e) {
+            log.error("회원 주문 요약 갱신 실패 (--{} 로 재구축 필요). memberId={}", REBUILD_OPTION, event.getMemberId(), e);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD_OPTION)) {
+            rebuild();
+        }
+    }
+
+    public long rebuild() {
+        long start = System.nanoTime();
+        long rebuilt = 0;
+        long afterId = 0;
+
+        while (true) {
+            long from = afterId;
+            List<Long> orderIds = requiresNew.execute(status -> {
+                List<Long> ids = orderSummaryRepository.findOrderIds(from, REBUILD_CHUNK_SIZE);
+                orderSummaryRepository.refresh(ids);
+                return ids;
+            });
+
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            rebuilt += orderIds.size();
+            afterId = orderIds.get(orderIds.size() - 1);
+        }
+
+        log.info("주문 요약 재구축 완료: {}건 ({} ms)", rebuilt, (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+
+}
@@ -0,0 +1,93 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.OutboxMessage;
+import jpa.jpashop.repository.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+아웃박스 릴레이 (jpashop.outbox.relay.enabled=true 일 때만 활성화)
+poll-interval마다 깨어나서 batch-size건씩 선점(SKIP LOCKED) → sink 전달 → 일괄 삭제를 한 트랜잭션으로 처리하고,
+배치가 꽉 차 있으면 쌓인 메시지가 없어질 때까지 쉬지 않고 이어서 처리함
+sink가 실패하면 트랜잭션이 롤백되어 잠금이 풀리고 다음 폴링에서 같은 배치를 다시 전달함 (최소 한 번 전달)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jpashop.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       OutboxSink outboxSink,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${jpashop.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${jpashop.outbox.relay.poll-interval:500ms}") Duration pollInterval) {
+        this.outboxRepository = outboxRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollInterval.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        poller.scheduleWithFixedDelay(this::drainSafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        poller.shutdown();
+        poller.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // 배치 하나를 처리하고 전달한 메시지 수를 돌려줌
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxMessage> messages = outboxRepository.claim(batchSize);
+            if (messages.isEmpty()) {
+                return 0;
+            }
+
+            outboxSink.publish(messages);
+            outboxRepository.delete(messages.stream().map(OutboxMessage::getId).collect(Collectors.toList()));
+            return messages.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private void drainSafely() {
+        try {
+            while (relayBatch() == batchSize && !Thread.currentThread().isInterrupted()) {
+                // 쌓여 있는 메시지가 더 있으면 다음 폴링을 기다리지 않고 계속 처리
+            }
+        } catch (RuntimeException e) {
+            log.warn("아웃박스 전달 실패, 다음 폴링에서 다시 시도합니다.", e);
+        }
+    }
+
+}
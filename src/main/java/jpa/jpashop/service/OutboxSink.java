@@ -0,0 +1,15 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.OutboxMessage;
+
+import java.util.List;
+
+/*
+아웃박스 메시지를 외부로 내보내는 대상 (메시지 브로커, 파일, 로그 등)
+예외를 던지면 배치 전체가 다음 폴링에서 다시 전달됨
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages);
+
+}
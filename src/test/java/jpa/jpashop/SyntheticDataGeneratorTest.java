@@ -0,0 +1,81 @@
+package jpa.jpashop;
+
+import jpa.jpashop.domain.Address;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.service.MemberService;
+import jpa.jpashop.service.OrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:synthetic;LOCK_TIMEOUT=10000",
+        "jpashop.synthetic.members=500",
+        "jpashop.synthetic.categories=20",
+        "jpashop.synthetic.items=300",
+        "jpashop.synthetic.orders=2000",
+        "jpashop.synthetic.batch-size=100"
+})
+@ActiveProfiles("synthetic")
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    OrderService orderService;
+
+    @Test
+    @DisplayName("설정한 건수만큼 생성하고, 모든 상품 타입을 포함하며, 주문은 인기 상품에 몰림")
+    void generate() {
+        assertThat(count("select count(*) from member")).isEqualTo(500);
+        assertThat(count("select count(*) from category")).isEqualTo(20);
+        assertThat(count("select count(*) from item")).isEqualTo(300);
+        assertThat(count("select count(*) from orders")).isEqualTo(2000);
+        assertThat(count("select count(*) from delivery")).isEqualTo(2000);
+        assertThat(jdbcTemplate.queryForList("select distinct dtype from item", String.class))
+                .containsExactlyInAnyOrder("B", "A", "M");
+
+        // 주문 금액은 주문상품 합계와 일치
+        assertThat(count("select count(*) from orders o where o.total_price <>"
+                + " (select sum(oi.order_price * oi.count) from order_item oi where oi.order_id = o.order_id)")).isZero();
+
+        // Zipf 분포: 가장 인기 있는 상품 하나가 균등 분포일 때의 몫(1/300)보다 훨씬 많이 팔림
+        long orderItems = count("select count(*) from order_item");
+        long topItem = count("select max(c) from (select count(*) c from order_item group by item_id)");
+        assertThat(topItem).isGreaterThan(orderItems / 30);
+    }
+
+    // 생성 건수를 검증하는 테스트가 뒤에 실행돼도 이 테스트가 커밋한 회원/주문이 섞이지 않도록 컨텍스트(데이터 생성)를 새로 띄움
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    @DisplayName("생성 이후 JPA로 저장해도 id가 겹치지 않음")
+    void sequencesRestarted() {
+        Long memberId = memberService.join(new MemberDto("AfterSynthetic", new Address("Seoul", "Teheran-ro", "12345")));
+        Long itemId = jdbcTemplate.queryForObject("select min(item_id) from item", Long.class);
+
+        OrderItemDto orderItemDto = new OrderItemDto();
+        orderItemDto.setItemId(itemId);
+        orderItemDto.setCount(1);
+        Long orderId = orderService.order(memberId, List.of(orderItemDto));
+
+        assertThat(memberId).isGreaterThan(500L);
+        assertThat(orderId).isGreaterThan(2000L);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,188 @@
+package jpa.jpashop.config;
+
+import jpa.jpashop.domain.Address;
+import jpa.jpashop.domain.Member;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.service.MemberService;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// 로컬 H2 인메모리 DB 두 개를 primary, replica로 사용. 복제는 H2 SCRIPT 결과를 replica에 실행하는 것으로 흉내냄
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;LOCK_TIMEOUT=10000",
+        "jpashop.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica",
+        "jpashop.datasource.replica.username=sa",
+        "jpashop.datasource.replica.connection-timeout=1000"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    @Test
+    @DisplayName("readOnly 트랜잭션은 replica에서 읽고, readFromPrimary 안에서는 primary에서 읽음")
+    void routing() {
+        memberService.join(new MemberDto("Replicated", new Address("Seoul", "Teheran-ro", "12345")));
+        replicate();
+        memberService.join(new MemberDto("NotYetReplicated", new Address("Seoul", "Teheran-ro", "12345")));
+
+        List<MemberDto> fromReplica = memberService.findMembers(null, 100);
+        List<MemberDto> fromPrimary = ReadWriteRoutingDataSource.readFromPrimary(() -> memberService.findMembers(null, 100));
+
+        assertThat(fromReplica).extracting(MemberDto::getName)
+                .contains("Replicated")
+                .doesNotContain("NotYetReplicated");
+        assertThat(fromPrimary).extracting(MemberDto::getName)
+                .contains("Replicated", "NotYetReplicated");
+    }
+
+    @Test
+    @DisplayName("같은 EntityManager로 readOnly 조회 뒤에 쓰기 트랜잭션을 실행해도 쓰기는 primary로 감")
+    void readThenWrite() {
+        replicate();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        readOnly.executeWithoutResult(status -> em.createQuery("select m from Member m", Member.class).getResultList());
+        Long memberId = readWrite.execute(status -> {
+            Member member = new Member();
+            member.setName("WrittenAfterRead");
+            em.persist(member);
+            return member.getId();
+        });
+
+        String countSql = "select count(*) from member where member_id = ?";
+        assertThat(new JdbcTemplate(primaryDataSource).queryForObject(countSql, Long.class, memberId)).isEqualTo(1);
+        assertThat(new JdbcTemplate(replicaDataSource).queryForObject(countSql, Long.class, memberId)).isZero();
+    }
+
+    @Test
+    @DisplayName("한 요청 안에서 readOnly 조회 뒤에 쓰기를 해도 조회는 replica, 쓰기는 primary 커넥션을 받음")
+    void readThenWriteInOneRequest() throws Exception {
+        replicate();
+
+        mockMvc.perform(post("/test/routing/read-then-write"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read", startsWith("jdbc:h2:mem:routing-replica")))
+                .andExpect(jsonPath("$.write", startsWith("jdbc:h2:mem:routing-primary")));
+
+        String countSql = "select count(*) from member where name = 'WrittenInRequest'";
+        assertThat(new JdbcTemplate(primaryDataSource).queryForObject(countSql, Long.class)).isEqualTo(1);
+        assertThat(new JdbcTemplate(replicaDataSource).queryForObject(countSql, Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("open-in-view가 켜져 있으면 라우팅 DataSource를 만들지 않음")
+    void rejectOpenInView() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-osiv-primary", "sa", "");
+
+        assertThatThrownBy(() -> new DataSourceRoutingConfig().dataSource(primary, primary, Duration.ofSeconds(5), true))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("replica 커넥션을 얻지 못하면 primary로 대신 읽음")
+    void fallbackToPrimary() throws Exception {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-fallback-primary", "sa", "");
+        DataSource brokenReplica = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/~/none", "sa", "");
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, brokenReplica, Duration.ofMinutes(1));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = routingDataSource.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).isEqualTo("jdbc:h2:mem:routing-fallback-primary");
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    // 조회와 쓰기를 서로 다른 트랜잭션으로 실행하는 요청에서 단계별로 실제 커넥션의 DB를 돌려줌
+    @TestConfiguration
+    @Import(RoutingProbeController.class)
+    static class RoutingProbeConfig {
+    }
+
+    @RestController
+    static class RoutingProbeController {
+
+        private final EntityManager em;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        RoutingProbeController(EntityManager em, PlatformTransactionManager transactionManager) {
+            this.em = em;
+            this.readOnly = new TransactionTemplate(transactionManager);
+            this.readOnly.setReadOnly(true);
+            this.readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        @PostMapping("/test/routing/read-then-write")
+        public Map<String, String> readThenWrite() {
+            String readUrl = readOnly.execute(status -> connectionUrl());
+            String writeUrl = readWrite.execute(status -> {
+                Member member = new Member();
+                member.setName("WrittenInRequest");
+                em.persist(member);
+                return connectionUrl();
+            });
+            return Map.of("read", readUrl, "write", writeUrl);
+        }
+
+        private String connectionUrl() {
+            return em.unwrap(Session.class).doReturningWork(connection -> connection.getMetaData().getURL());
+        }
+    }
+
+    // primary의 현재 스키마와 데이터를 replica에 그대로 옮김
+    private void replicate() {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+}
@@ -0,0 +1,63 @@
+package jpa.jpashop.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 잘못된 조회 건수나 커서는 서버 오류(500)가 아니라 잘못된 요청(400)으로 응답
+// MockMvc 구성으로 컨텍스트가 따로 뜨므로 testdb 스키마를 다시 만들지 않게 별도 DB를 사용
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:api-errors;LOCK_TIMEOUT=10000")
+@AutoConfigureMockMvc
+@Transactional
+class ApiExceptionHandlerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    @DisplayName("회원 목록 - 조회 건수가 범위를 벗어나거나 커서가 잘못되면 400")
+    void findMembers_badRequest() throws Exception {
+        mockMvc.perform(get("/members").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members").param("limit", "1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("상품 목록 - 조회 건수가 범위를 벗어나거나 커서가 잘못되면 400")
+    void findCatalog_badRequest() throws Exception {
+        mockMvc.perform(get("/items").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items").param("limit", "1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("회원 주문 이력 - 조회 건수가 범위를 벗어나거나 커서가 잘못되면 400")
+    void findOrderHistory_badRequest() throws Exception {
+        mockMvc.perform(get("/members/{memberId}/orders", 1L).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members/{memberId}/orders", 1L).param("limit", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members/{memberId}/orders", 1L).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members/{memberId}/orders", 1L).param("limit", "1"))
+                .andExpect(status().isOk());
+    }
+
+}
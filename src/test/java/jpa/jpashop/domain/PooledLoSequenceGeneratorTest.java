@@ -0,0 +1,52 @@
+package jpa.jpashop.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idincrement;LOCK_TIMEOUT=10000",
+        "spring.jpa.properties.jpashop.id.default_increment_size=50",
+        "spring.jpa.properties.jpashop.id.increment_size.order_item_seq=100"
+})
+class PooledLoSequenceGeneratorTest {
+
+    private static final String SETTING_PREFIX = "spring.jpa.properties.";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("운영 설정의 increment_size가 Hibernate 설정(spring.jpa.properties.jpashop.id.*)으로 전달되는 위치에 있음")
+    void mainConfigLocation() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new FileSystemResource("src/main/resources/application.yml"));
+        Properties properties = yaml.getObject();
+
+        assertThat(properties.getProperty(SETTING_PREFIX + PooledLoSequenceGenerator.DEFAULT_INCREMENT_SIZE_SETTING))
+                .isEqualTo("50");
+        assertThat(properties.getProperty(SETTING_PREFIX + PooledLoSequenceGenerator.INCREMENT_SIZE_SETTING_PREFIX + "order_item_seq"))
+                .isEqualTo("100");
+    }
+
+    @Test
+    @DisplayName("시퀀스별 increment_size가 있으면 그 값을, 없으면 기본값을 시퀀스 증가폭으로 씀")
+    void incrementSizeApplied() {
+        assertThat(increment("ORDER_ITEM_SEQ")).isEqualTo(100);
+        assertThat(increment("ORDERS_SEQ")).isEqualTo(50);
+        assertThat(increment("MEMBER_SEQ")).isEqualTo(50);
+    }
+
+    private long increment(String sequenceName) {
+        return jdbcTemplate.queryForObject(
+                "select increment from information_schema.sequences where sequence_name = ?", Long.class, sequenceName);
+    }
+}
@@ -0,0 +1,76 @@
+package jpa.jpashop.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.service.MemberService;
+import jpa.jpashop.service.OrderService;
+import jpa.jpashop.support.ShopFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static jpa.jpashop.support.ShopFixture.orderItems;
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class HotPathMetricsAspectTest {
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    ShopFixture shopFixture;
+
+    @Autowired
+    OrderService orderService;
+
+    @Test
+    @DisplayName("서비스/리포지토리 메서드는 지연 시간, SQL 수, 반환 행 수를 기록")
+    void recordsServiceAndRepository() {
+        Long memberId = shopFixture.createMember("MetricsBuyer");
+        long before = countOf(latency("MemberService", "findMembers"));
+
+        memberService.findMembers(null, 10);
+
+        assertThat(latency("MemberService", "findMembers").count()).isEqualTo(before + 1);
+        assertThat(latency("MemberRepository", "findMemberDtos")).isNotNull();
+        DistributionSummary queries = registry.find("jpashop.method.queries")
+                .tags("class", "MemberService", "method", "join")
+                .summary();
+        assertThat(queries).isNotNull();
+        assertThat(queries.totalAmount()).isPositive();
+        assertThat(registry.find("jpashop.method.rows")
+                .tags("class", "MemberService", "method", "findMembers")
+                .summary()
+                .totalAmount()).isPositive();
+        assertThat(memberId).isNotNull();
+    }
+
+    @Test
+    @DisplayName("@Service/@Repository가 아닌 service 패키지의 컴포넌트는 측정하지 않음")
+    void skipsComponents() {
+        Long memberId = shopFixture.createMember("MetricsBuyer");
+        Book book = shopFixture.createBook("MetricsBook", 10000, 10);
+
+        orderService.order(memberId, orderItems(book, 1));
+
+        assertThat(latency("OrderService", "order")).isNotNull();
+        assertThat(registry.find("jpashop.method.latency").tag("class", "OrderEventOutbox").timer()).isNull();
+    }
+
+    private Timer latency(String className, String method) {
+        return registry.find("jpashop.method.latency").tags("class", className, "method", method).timer();
+    }
+
+    private long countOf(Timer timer) {
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,57 @@
+package jpa.jpashop.metrics;
+
+import jpa.jpashop.domain.item.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class SqlStatementCounterTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    @DisplayName("JdbcTemplate으로 실행한 SQL도 실행할 때마다 셈")
+    void countsJdbcTemplate() {
+        long before = SqlStatementCounter.current();
+
+        jdbcTemplate.queryForObject("select count(*) from member", Long.class);
+        jdbcTemplate.queryForObject("select count(*) from member", Long.class);
+
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("JDBC batch는 행 수와 관계없이 executeBatch 한 번으로 셈")
+    void countsBatchOnce() {
+        long before = SqlStatementCounter.current();
+        jdbcTemplate.batchUpdate("update item set stock = stock where item_id = ?",
+                List.of(new Object[]{1L}, new Object[]{2L}, new Object[]{3L}));
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(1);
+
+        for (int i = 0; i < 10; i++) {
+            Book book = new Book();
+            book.setName("CountedBook" + i);
+            book.setPrice(10000);
+            book.setStock(10);
+            em.persist(book);
+        }
+        long beforeFlush = SqlStatementCounter.current();
+        em.flush();
+        assertThat(SqlStatementCounter.current() - beforeFlush).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,155 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.item.Item;
+import jpa.jpashop.exception.DuplicateRequestInProgressException;
+import jpa.jpashop.exception.IdempotencyKeyMismatchException;
+import jpa.jpashop.exception.NotEnoughStockException;
+import jpa.jpashop.repository.IdempotencyKeyRepository;
+import jpa.jpashop.support.ShopFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static jpa.jpashop.support.ShopFixture.orderItems;
+import static org.assertj.core.api.Assertions.*;
+
+// 키 선점은 트랜잭션 밖에서 커밋되므로 별도 DB를 쓰고 테스트 트랜잭션도 걸지 않음
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotency;LOCK_TIMEOUT=10000")
+class IdempotentOrderServiceTest {
+
+    @Autowired
+    IdempotentOrderService idempotentOrderService;
+
+    @Autowired
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ShopFixture shopFixture;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("같은 키로 다시 요청하면 주문을 새로 만들지 않고 처음 주문의 id를 반환")
+    void sameKeyReturnsSameOrder() {
+        Long memberId = shopFixture.createMember("RetryBuyer");
+        Item book = shopFixture.createBook("RetryBook", 10000, 10);
+
+        Long first = idempotentOrderService.order("retry-key", memberId, orderItems(book, 2));
+        Long second = idempotentOrderService.order("retry-key", memberId, orderItems(book, 2));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(countOrders(memberId)).isEqualTo(1);
+        assertThat(itemService.findItem(book.getId()).getStock()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("같은 키의 동시 요청은 하나만 주문되고, 나머지는 같은 id를 받거나 처리 중 예외로 즉시 거절")
+    void concurrentDuplicates() throws Exception {
+        Long memberId = shopFixture.createMember("ConcurrentBuyer");
+        Item book = shopFixture.createBook("ConcurrentBook", 10000, 100);
+        int threads = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return idempotentOrderService.order("concurrent-key", memberId, orderItems(book, 1));
+            }));
+        }
+        start.countDown();
+
+        List<Long> orderIds = new ArrayList<>();
+        for (Future<Long> future : futures) {
+            try {
+                orderIds.add(future.get());
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(DuplicateRequestInProgressException.class);
+            }
+        }
+        executor.shutdown();
+
+        assertThat(orderIds).isNotEmpty();
+        assertThat(orderIds).containsOnly(orderIds.get(0));
+        assertThat(countOrders(memberId)).isEqualTo(1);
+        assertThat(itemService.findItem(book.getId()).getStock()).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("주문이 실패하면 키 선점을 풀어서 같은 키로 다시 시도 가능")
+    void failedOrderReleasesKey() {
+        Long memberId = shopFixture.createMember("FailBuyer");
+        Item book = shopFixture.createBook("FailBook", 10000, 1);
+
+        assertThatThrownBy(() -> idempotentOrderService.order("fail-key", memberId, orderItems(book, 2)))
+                .isInstanceOf(NotEnoughStockException.class);
+        assertThat(idempotencyKeyRepository.find("fail-key")).isEmpty();
+
+        Long orderId = idempotentOrderService.order("fail-key", memberId, orderItems(book, 1));
+        assertThat(orderId).isNotNull();
+    }
+
+    @Test
+    @DisplayName("처리 중인 키는 잠금 대기 없이 바로 거절")
+    void pendingKeyRejected() {
+        Long memberId = shopFixture.createMember("PendingBuyer");
+        Item book = shopFixture.createBook("PendingBook", 10000, 10);
+        assertThat(idempotencyKeyRepository.tryClaim("pending-key", IdempotentOrderService.requestHash(memberId, orderItems(book, 1)))).isTrue();
+
+        CompletableFuture<Long> duplicate = CompletableFuture
+                .supplyAsync(() -> idempotentOrderService.order("pending-key", memberId, orderItems(book, 1)));
+
+        assertThatThrownBy(duplicate::join).hasCauseInstanceOf(DuplicateRequestInProgressException.class);
+        assertThat(countOrders(memberId)).isZero();
+    }
+
+    @Test
+    @DisplayName("같은 키로 내용이 다른 주문을 보내면 처음 주문의 id를 돌려주지 않고 거절")
+    void sameKeyDifferentRequestRejected() {
+        Long memberId = shopFixture.createMember("MismatchBuyer");
+        Long otherMemberId = shopFixture.createMember("MismatchOtherBuyer");
+        Item book = shopFixture.createBook("MismatchBook", 10000, 10);
+
+        idempotentOrderService.order("mismatch-key", memberId, orderItems(book, 1));
+
+        assertThatThrownBy(() -> idempotentOrderService.order("mismatch-key", memberId, orderItems(book, 3)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThatThrownBy(() -> idempotentOrderService.order("mismatch-key", otherMemberId, orderItems(book, 1)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(countOrders(memberId)).isEqualTo(1);
+        assertThat(countOrders(otherMemberId)).isZero();
+        assertThat(itemService.findItem(book.getId()).getStock()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("다른 요청이 선점한 키는 처리 중이어도 내용이 다르면 거절 (메모리 캐시를 거치지 않는 경우)")
+    void claimedKeyDifferentRequestRejected() {
+        Long memberId = shopFixture.createMember("ClaimedMismatchBuyer");
+        Item book = shopFixture.createBook("ClaimedMismatchBook", 10000, 10);
+        assertThat(idempotencyKeyRepository.tryClaim("claimed-mismatch-key", IdempotentOrderService.requestHash(memberId, orderItems(book, 5)))).isTrue();
+
+        assertThatThrownBy(() -> idempotentOrderService.order("claimed-mismatch-key", memberId, orderItems(book, 1)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(countOrders(memberId)).isZero();
+    }
+
+    private Long countOrders(Long memberId) {
+        return jdbcTemplate.queryForObject("select count(*) from orders where member_id = ?", Long.class, memberId);
+    }
+}
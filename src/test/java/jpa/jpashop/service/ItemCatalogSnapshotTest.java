@@ -0,0 +1,109 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.dto.ItemDto;
+import jpa.jpashop.dto.ItemUpdateDto;
+import jpa.jpashop.repository.ItemRepository;
+import jpa.jpashop.support.QueryCounter;
+import jpa.jpashop.support.ShopFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+// 스냅샷은 커밋 이후 비동기로 갱신되므로 @Transactional을 붙이지 않고, 다른 테스트와 섞이지 않게 별도 DB를 사용
+@SpringBootTest(properties = {
+        "jpashop.catalog-snapshot.enabled=true",
+        "jpashop.catalog-snapshot.refresh-interval=1h",
+        "jpashop.catalog-snapshot.max-staleness=1h",
+        "spring.datasource.url=jdbc:h2:mem:catalog-snapshot;LOCK_TIMEOUT=10000"
+})
+class ItemCatalogSnapshotTest {
+
+    @Autowired
+    ItemCatalogSnapshot itemCatalogSnapshot;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ShopFixture shopFixture;
+
+    @SpyBean
+    ItemRepository itemRepository;
+
+    @Test
+    @DisplayName("상품 저장/수정이 커밋되면 스냅샷에 반영되고, 조회는 SQL 없이 스냅샷에서 응답")
+    void refreshAfterCommit() throws InterruptedException {
+        Long itemId = shopFixture.createBook("SnapshotBook", 10000, 10).getId();
+
+        await(() -> itemCatalogSnapshot.find(itemId).isPresent());
+
+        ItemUpdateDto updateParam = new ItemUpdateDto();
+        updateParam.setName("SnapshotBook");
+        updateParam.setPrice(12000);
+        updateParam.setStock(7);
+        itemService.updateItem(itemId, updateParam);
+
+        await(() -> itemCatalogSnapshot.find(itemId).map(ItemDto::getPrice).orElse(0) == 12000);
+
+        ItemDto[] found = new ItemDto[1];
+        int statements = QueryCounter.count(() -> found[0] = itemService.findCatalogItem(itemId)).total();
+
+        assertThat(statements).isZero();
+        assertThat(itemCatalogSnapshot.isFresh()).isTrue();
+        assertThat(found[0].getStock()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("스냅샷 조회는 적재할 때 만든 DTO를 그대로 돌려줌")
+    void findReturnsStoredDto() throws InterruptedException {
+        Long itemId = shopFixture.createBook("SharedDtoBook", 10000, 10).getId();
+
+        await(() -> itemCatalogSnapshot.find(itemId).isPresent());
+
+        assertThat(itemCatalogSnapshot.find(itemId).get()).isSameAs(itemCatalogSnapshot.find(itemId).get());
+    }
+
+    @Test
+    @DisplayName("변경 반영 조회가 실패해도 바뀐 상품을 버리지 않고 전체 적재로 반영")
+    void applyChangesFailure() throws InterruptedException {
+        Long itemId = shopFixture.createBook("RetriedBook", 10000, 10).getId();
+        await(() -> itemCatalogSnapshot.find(itemId).isPresent());
+
+        doThrow(new IllegalStateException("반영 조회 실패")).doCallRealMethod()
+                .when(itemRepository).findItemDtosByIds(anyCollection());
+
+        ItemUpdateDto updateParam = new ItemUpdateDto();
+        updateParam.setName("RetriedBook");
+        updateParam.setPrice(15000);
+        updateParam.setStock(10);
+        itemService.updateItem(itemId, updateParam);
+
+        await(() -> itemCatalogSnapshot.find(itemId).map(ItemDto::getPrice).orElse(0) == 15000);
+        verify(itemRepository, atLeastOnce()).findItemDtosByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 상품은 스냅샷에서 찾지 못함")
+    void notFound() {
+        Optional<ItemDto> found = itemCatalogSnapshot.find(Long.MAX_VALUE);
+
+        assertThat(found).isEmpty();
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).withFailMessage("스냅샷이 5초 안에 갱신되지 않음").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
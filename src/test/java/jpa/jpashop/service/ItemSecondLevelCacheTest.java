@@ -0,0 +1,54 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.support.QueryCounter;
+import jpa.jpashop.support.ShopFixture;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static jpa.jpashop.support.ShopFixture.orderItems;
+import static org.assertj.core.api.Assertions.*;
+
+// 2차 캐시는 커밋된 엔티티만 담으므로 @Transactional 없이 별도 DB에서 검증
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:item-l2;LOCK_TIMEOUT=10000",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ItemSecondLevelCacheTest {
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ShopFixture shopFixture;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Test
+    @DisplayName("주문 시 상품은 2차 캐시에서 읽고 item 테이블을 조회하지 않음")
+    void orderReadsItemsFromCache() {
+        Long memberId = shopFixture.createMember("CachedItemBuyer");
+        Book book = shopFixture.createBook("CachedItemBook", 10000, 10);
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        QueryCounter.count(() -> orderService.order(memberId, orderItems(book, 1)))
+                .assertNoSelectFrom("item");
+
+        assertThat(statistics.getDomainDataRegionStatistics("item").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(1);
+        // 재고가 바뀐 상품은 캐시에서 무효화되므로 이후 조회는 DB의 최신 재고를 읽음
+        assertThat(itemService.findItem(book.getId()).getStock()).isEqualTo(9);
+    }
+}
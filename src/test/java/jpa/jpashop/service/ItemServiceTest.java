@@ -0,0 +1,100 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.item.Album;
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.domain.item.Item;
+import jpa.jpashop.domain.item.ItemType;
+import jpa.jpashop.domain.item.Movie;
+import jpa.jpashop.dto.ItemCursor;
+import jpa.jpashop.dto.ItemDto;
+import jpa.jpashop.dto.ItemSearchDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class ItemServiceTest {
+
+    // 다른 테스트 데이터와 겹치지 않는 가격대
+    private static final int BASE_PRICE = 9_000_000;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    @DisplayName("상품 목록 - 타입, 가격 범위, 재고 조건으로 가격순 조회")
+    void findCatalog() {
+        saveItem(new Book(), "Book1", BASE_PRICE + 300, 10);
+        saveItem(new Book(), "Book2", BASE_PRICE + 100, 0);
+        saveItem(new Book(), "Book3", BASE_PRICE + 200, 5);
+        saveItem(new Album(), "Album1", BASE_PRICE + 150, 5);
+        saveItem(new Movie(), "Movie1", BASE_PRICE + 250, 5);
+        em.flush();
+        em.clear();
+
+        ItemSearchDto searchCond = priceRange();
+        searchCond.setItemType(ItemType.BOOK);
+        searchCond.setInStockOnly(true);
+
+        List<ItemDto> result = itemService.findCatalog(searchCond);
+
+        assertThat(result).extracting(ItemDto::getName).containsExactly("Book3", "Book1");
+        assertThat(result).extracting(ItemDto::getItemType).containsOnly(ItemType.BOOK);
+    }
+
+    @Test
+    @DisplayName("상품 목록 - 커서로 다음 페이지 조회 (같은 가격은 id순)")
+    void findCatalog_cursor() {
+        saveItem(new Book(), "Book1", BASE_PRICE + 100, 1);
+        saveItem(new Album(), "Album1", BASE_PRICE + 100, 1);
+        saveItem(new Movie(), "Movie1", BASE_PRICE + 200, 1);
+        em.flush();
+        em.clear();
+
+        ItemSearchDto searchCond = priceRange();
+        searchCond.setLimit(2);
+        List<ItemDto> firstPage = itemService.findCatalog(searchCond);
+
+        searchCond.setCursor(ItemCursor.next(firstPage, searchCond.getLimit()));
+        List<ItemDto> secondPage = itemService.findCatalog(searchCond);
+
+        assertThat(firstPage).extracting(ItemDto::getName).containsExactly("Book1", "Album1");
+        assertThat(secondPage).extracting(ItemDto::getName).containsExactly("Movie1");
+        assertThat(ItemCursor.next(secondPage, searchCond.getLimit())).isNull();
+    }
+
+    @Test
+    @DisplayName("상품 목록 - 조회 건수가 1 ~ MAX_PAGE_SIZE를 벗어나면 예외")
+    void findCatalog_invalidLimit() {
+        for (long limit : new long[]{0, -1, ItemService.MAX_PAGE_SIZE + 1}) {
+            ItemSearchDto searchCond = priceRange();
+            searchCond.setLimit(limit);
+            assertThatThrownBy(() -> itemService.findCatalog(searchCond)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private ItemSearchDto priceRange() {
+        ItemSearchDto searchCond = new ItemSearchDto();
+        searchCond.setMinPrice(BASE_PRICE);
+        searchCond.setMaxPrice(BASE_PRICE + 1000);
+        return searchCond;
+    }
+
+    private void saveItem(Item item, String name, int price, int stock) {
+        item.setName(name);
+        item.setPrice(price);
+        item.setStock(stock);
+        itemService.saveItem(item);
+    }
+}
@@ -1,6 +1,8 @@
 package jpa.jpashop.service;
 
 import jpa.jpashop.domain.Member;
+import jpa.jpashop.dto.MemberCursor;
+import jpa.jpashop.dto.MemberDto;
 import jpa.jpashop.repository.MemberRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,6 +10,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 
 @SpringBootTest
@@ -23,26 +27,56 @@ class MemberServiceTest {
     @Test
     @DisplayName("회원 가입 성공")
     public void join() {
-        Member member = new Member();
-        member.setName("Andy");
+        MemberDto memberDto = new MemberDto("Andy", null);
 
-        Long id = memberService.join(member);
+        Long id = memberService.join(memberDto);
 
         Member findMember = memberRepository.findById(id).get();
-        assertThat(member).isEqualTo(findMember);
+        assertThat(findMember.getName()).isEqualTo(memberDto.getName());
     }
 
     @Test
     @DisplayName("회원 가입 실패 - 중복된 이름으로 가입 시도")
     public void joinWithDuplicateName() {
-        Member member1 = new Member();
-        member1.setName("Andy");
-        Member member2 = new Member();
-        member2.setName("Andy");
+        MemberDto member1 = new MemberDto("Andy", null);
+        MemberDto member2 = new MemberDto("Andy", null);
 
         memberService.join(member1);
 
         assertThatThrownBy(() -> memberService.join(member2)).isInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    @DisplayName("회원 목록 조회 - 커서로 다음 페이지 조회")
+    public void findMembers() {
+        Long firstId = memberService.join(new MemberDto("Page0", null));
+        for (int i = 1; i < 5; i++) {
+            memberService.join(new MemberDto("Page" + i, null));
+        }
+
+        List<MemberDto> firstPage = memberService.findMembers(new MemberCursor(firstId - 1).encode(), 2);
+        List<MemberDto> secondPage = memberService.findMembers(MemberCursor.next(firstPage, 2), 2);
+        List<MemberDto> lastPage = memberService.findMembers(MemberCursor.next(secondPage, 2), 2);
+
+        assertThat(firstPage).extracting(MemberDto::getName).containsExactly("Page0", "Page1");
+        assertThat(secondPage).extracting(MemberDto::getName).containsExactly("Page2", "Page3");
+        assertThat(lastPage).extracting(MemberDto::getName).containsExactly("Page4");
+    }
+
+    @Test
+    @DisplayName("회원 목록 조회 - 잘못된 커서는 예외")
+    public void findMembers_invalidCursor() {
+        assertThatThrownBy(() -> memberService.findMembers("not-a-cursor", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberService.findMembers("12", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("회원 목록 조회 - 조회 건수가 1 ~ MAX_PAGE_SIZE를 벗어나면 예외")
+    public void findMembers_invalidLimit() {
+        assertThatThrownBy(() -> memberService.findMembers(null, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberService.findMembers(null, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberService.findMembers(null, MemberService.MAX_PAGE_SIZE + 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(memberService.findMembers(null, MemberService.MAX_PAGE_SIZE)).hasSizeLessThanOrEqualTo(MemberService.MAX_PAGE_SIZE);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.exception.NotEnoughStockException;
+import jpa.jpashop.support.ShopFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static jpa.jpashop.support.ShopFixture.orderItems;
+import static org.assertj.core.api.Assertions.*;
+
+// 커밋 스레드가 별도 트랜잭션으로 커밋하므로 @Transactional을 붙이지 않고, 다른 테스트와 섞이지 않게 별도 DB를 사용
+@SpringBootTest(properties = {
+        "jpashop.order-intake.enabled=true",
+        "jpashop.order-intake.max-batch-size=20",
+        "spring.datasource.url=jdbc:h2:mem:intake;LOCK_TIMEOUT=10000"
+})
+class OrderIntakePipelineTest {
+
+    @Autowired
+    OrderIntakePipeline orderIntakePipeline;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ShopFixture shopFixture;
+
+    @Autowired
+    OrderService orderService;
+
+    @Test
+    @DisplayName("그룹 커밋 주문 접수 - 성공한 주문은 id, 재고 부족 주문은 예외로 완료")
+    void submit() throws Exception {
+        Long memberId = shopFixture.createMember("IntakeBuyer");
+        Book book = shopFixture.createBook("IntakeBook", 10000, 50);
+
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            futures.add(orderIntakePipeline.submit(memberId, orderItems(book, 1)));
+        }
+
+        int success = 0;
+        int outOfStock = 0;
+        for (CompletableFuture<Long> future : futures) {
+            try {
+                assertThat(future.get(10, TimeUnit.SECONDS)).isNotNull();
+                success++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(NotEnoughStockException.class);
+                outOfStock++;
+            }
+        }
+
+        assertThat(success).isEqualTo(50);
+        assertThat(outOfStock).isEqualTo(10);
+        assertThat(itemService.findItem(book.getId()).getStock()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("커밋 스레드가 인터럽트되면 모으던 주문과 대기열의 주문은 거절로 완료되고, 이후 접수도 거절")
+    void interruptedCommitterRejectsPending() throws Exception {
+        // 배치를 모으는 동안(최대 지연 30초) 인터럽트되도록 별도 인스턴스를 만들고, 만들어진 커밋 스레드를 받아 둠
+        AtomicReference<Thread> committer = new AtomicReference<>();
+        OrderIntakePipeline pipeline = new OrderIntakePipeline(orderService, 100, 100, Duration.ofSeconds(30), Duration.ofMillis(100),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "test-intake-committer");
+                    committer.set(thread);
+                    return thread;
+                });
+        pipeline.start();
+
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(pipeline.submit(1L, List.of(new OrderItemDto())));
+        }
+        committer.get().interrupt();
+        committer.get().join(TimeUnit.SECONDS.toMillis(10));
+
+        for (CompletableFuture<Long> future : futures) {
+            assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(RejectedExecutionException.class);
+        }
+        assertThatThrownBy(() -> pipeline.submit(1L, List.of(new OrderItemDto())))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("종료 후 접수는 거절")
+    void submitAfterStop() throws Exception {
+        OrderIntakePipeline pipeline = new OrderIntakePipeline(orderService, 100, 100, Duration.ofMillis(5), Duration.ofMillis(100));
+        pipeline.start();
+        pipeline.stop();
+
+        assertThatThrownBy(() -> pipeline.submit(1L, List.of(new OrderItemDto())))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+}
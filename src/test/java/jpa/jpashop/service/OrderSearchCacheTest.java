@@ -0,0 +1,90 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.dto.OrderDto;
+import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.support.QueryCounter;
+import jpa.jpashop.support.ShopFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static jpa.jpashop.support.ShopFixture.orderItems;
+import static org.assertj.core.api.Assertions.*;
+
+// 커밋 후 무효화를 확인해야 하므로 테스트 트랜잭션 없이 별도 DB에서 캐시를 켜고 실행
+@SpringBootTest(properties = {
+        "jpashop.cache.order-search.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:ordersearchcache;LOCK_TIMEOUT=10000"
+})
+class OrderSearchCacheTest {
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    ShopFixture shopFixture;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("같은 조건은 캐시에서 응답하고, 주문이 커밋되면 무효화")
+    void evictAfterCommit() {
+        Long memberId = shopFixture.createMember("CacheBuyer");
+        Book book = shopFixture.createBook("CacheBook", 10000, 100);
+        orderService.order(memberId, orderItems(book, 1));
+        OrderSearchDto searchCond = searchByName("CacheBuyer");
+
+        assertThat(orderService.searchOrder(searchCond)).hasSize(1);
+        assertThat(QueryCounter.count(() -> orderService.searchOrder(searchCond)).total()).isZero();
+
+        orderService.order(memberId, orderItems(book, 1));
+
+        assertThat(orderService.searchOrder(searchCond)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("롤백된 주문은 캐시를 무효화하지 않음")
+    void keepOnRollback() {
+        Long memberId = shopFixture.createMember("RollbackBuyer");
+        Book book = shopFixture.createBook("RollbackBook", 10000, 100);
+        orderService.order(memberId, orderItems(book, 1));
+        OrderSearchDto searchCond = searchByName("RollbackBuyer");
+        orderService.searchOrder(searchCond);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            orderService.order(memberId, orderItems(book, 1));
+            status.setRollbackOnly();
+        });
+
+        assertThat(QueryCounter.count(() -> orderService.searchOrder(searchCond)).total()).isZero();
+    }
+
+    @Test
+    @DisplayName("앞뒤 공백만 다른 이름은 같은 조건으로 검색되고, 캐시된 목록은 수정할 수 없음")
+    void normalizedAndUnmodifiable() {
+        Long memberId = shopFixture.createMember("TrimBuyer");
+        orderService.order(memberId, orderItems(shopFixture.createBook("TrimBook", 10000, 100), 1));
+
+        List<OrderDto> trimmed = orderService.searchOrder(searchByName("TrimBuyer"));
+        List<OrderDto> padded = orderService.searchOrder(searchByName(" TrimBuyer "));
+
+        assertThat(padded).isSameAs(trimmed).hasSize(1);
+        assertThatThrownBy(() -> trimmed.add(new OrderDto()))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> trimmed.get(0).getOrderItems().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private OrderSearchDto searchByName(String memberName) {
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setMemberName(memberName);
+        return searchCond;
+    }
+}
@@ -0,0 +1,134 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.OrderStatus;
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.dto.BulkOrderResultDto;
+import jpa.jpashop.dto.OrderRequestDto;
+import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.repository.OrderRepository;
+import jpa.jpashop.support.QueryCounter;
+import jpa.jpashop.support.QueryPlans;
+import jpa.jpashop.support.ShopFixture;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static jpa.jpashop.support.ShopFixture.orderItems;
+
+/*
+검색 쿼리가 전체 테이블 스캔으로 떨어지지 않는지 H2 EXPLAIN으로 확인
+검색 조건 조합별로 실제 실행되는 SQL을 기록해서 orders, order_item, order_summary 테이블을 인덱스로 읽는지 검사함
+통계가 반영되도록 데이터를 커밋하고 ANALYZE 한 뒤 검사 (별도 DB)
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:queryplan;LOCK_TIMEOUT=10000")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderSearchQueryPlanTest {
+
+    private static final String[] SEARCH_TABLES = {"orders", "order_item", "order_summary"};
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    ShopFixture shopFixture;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Long memberId;
+
+    @BeforeAll
+    void createOrders() {
+        List<Long> memberIds = new ArrayList<>();
+        for (String name : List.of("Andy", "Brian", "Chris", "David", "Emily")) {
+            memberIds.add(shopFixture.createMember(name));
+        }
+        memberId = memberIds.get(0);
+
+        Book book = shopFixture.createBook("PlanBook", 10000, 100000);
+
+        List<OrderRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            requests.add(new OrderRequestDto(memberIds.get(i % memberIds.size()), orderItems(book, 1)));
+        }
+        List<Long> orderIds = orderService.bulkOrder(requests).stream()
+                .map(BulkOrderResultDto::getOrderId)
+                .collect(Collectors.toList());
+
+        // 상태 조건의 선택도가 생기도록 일부 주문은 취소
+        orderService.cancelOrders(orderIds.subList(0, orderIds.size() / 5));
+
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    @DisplayName("상태 검색")
+    void status() {
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setOrderStatus(OrderStatus.CANCEL);
+
+        assertSearchUsesIndexes(searchCond);
+    }
+
+    @Test
+    @DisplayName("주문 일시 범위 검색")
+    void orderDateRange() {
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setOrderDateFrom(LocalDateTime.now().minusDays(1));
+        searchCond.setOrderDateTo(LocalDateTime.now().plusDays(1));
+
+        assertSearchUsesIndexes(searchCond);
+    }
+
+    @Test
+    @DisplayName("상태 + 주문 일시 범위 검색")
+    void statusAndOrderDateRange() {
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setOrderStatus(OrderStatus.ORDER);
+        searchCond.setOrderDateFrom(LocalDateTime.now().minusDays(1));
+
+        assertSearchUsesIndexes(searchCond);
+    }
+
+    @Test
+    @DisplayName("회원 이름 검색")
+    void memberName() {
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setMemberName("Andy");
+
+        assertSearchUsesIndexes(searchCond);
+    }
+
+    @Test
+    @DisplayName("회원별 주문 이력")
+    void orderHistory() {
+        QueryPlans.assertNoTableScan(jdbcTemplate,
+                QueryCounter.count(() -> orderRepository.findOrderHistory(memberId, null, 20)),
+                SEARCH_TABLES);
+    }
+
+    // 주문 검색(주문 조회 + 주문 상품 IN 조회)과 order_summary 검색을 함께 검사
+    private void assertSearchUsesIndexes(OrderSearchDto searchCond) {
+        searchCond.setLimit(20);
+
+        QueryPlans.assertNoTableScan(jdbcTemplate,
+                QueryCounter.count(() -> orderRepository.findBySearchCondV2(searchCond)),
+                SEARCH_TABLES);
+        QueryPlans.assertNoTableScan(jdbcTemplate,
+                QueryCounter.count(() -> orderService.searchOrderSummaries(searchCond)),
+                SEARCH_TABLES);
+    }
+
+}
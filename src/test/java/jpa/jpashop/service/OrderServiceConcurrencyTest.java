@@ -0,0 +1,131 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.Address;
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.exception.NotEnoughStockException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 여러 스레드가 각자 트랜잭션을 커밋해야 하므로 테스트 클래스에 @Transactional을 붙이지 않음
+@SpringBootTest
+class OrderServiceConcurrencyTest {
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Test
+    @DisplayName("동시 주문 - 초과 판매도, 재고 유실도 없음")
+    void order_concurrently() throws InterruptedException {
+        Long memberId = memberService.join(new MemberDto("FlashBuyer", new Address("Seoul", "Teheran-ro", "12345")));
+        Book book = createSampleBook("FlashSaleBook", 10000, 100);
+
+        int threadCount = 20;
+        int ordersPerThread = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger outOfStock = new AtomicInteger();
+
+        for (int t = 0; t < threadCount; t++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ordersPerThread; i++) {
+                        try {
+                            orderService.order(memberId, List.of(createOrderItemDto(book, 1)));
+                            success.incrementAndGet();
+                        } catch (NotEnoughStockException e) {
+                            outOfStock.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        done.await();
+        executor.shutdown();
+
+        assertThat(success.get()).isEqualTo(100);
+        assertThat(outOfStock.get()).isEqualTo(threadCount * ordersPerThread - 100);
+        assertThat(itemService.findItem(book.getId()).getStock()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("같은 주문의 동시 취소 - 한 번만 취소되고 재고도 한 번만 복구")
+    void cancelOrder_concurrently() throws InterruptedException {
+        Long memberId = memberService.join(new MemberDto("DoubleCanceler", new Address("Seoul", "Teheran-ro", "12345")));
+        Book book = createSampleBook("DoubleCancelBook", 10000, 10);
+        Long orderId = orderService.order(memberId, List.of(createOrderItemDto(book, 3)));
+
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        AtomicInteger canceled = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int t = 0; t < threadCount; t++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    orderService.cancelOrder(orderId);
+                    canceled.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        done.await();
+        executor.shutdown();
+
+        assertThat(canceled.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(threadCount - 1);
+        assertThat(itemService.findItem(book.getId()).getStock()).isEqualTo(10);
+    }
+
+    private Book createSampleBook(String name, int price, int stock) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStock(stock);
+        itemService.saveItem(book);
+        return book;
+    }
+
+    private OrderItemDto createOrderItemDto(Book book, int count) {
+        OrderItemDto dto = new OrderItemDto();
+        dto.setItemId(book.getId());
+        dto.setCount(count);
+        return dto;
+    }
+}
@@ -1,13 +1,20 @@
 package jpa.jpashop.service;
 
 import jpa.jpashop.domain.Address;
+import jpa.jpashop.domain.DeliveryStatus;
 import jpa.jpashop.domain.Member;
 import jpa.jpashop.domain.Order;
 import jpa.jpashop.domain.OrderStatus;
 import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.dto.BulkCancelResultDto;
+import jpa.jpashop.dto.BulkOrderResultDto;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.dto.OrderCursor;
 import jpa.jpashop.dto.OrderDto;
 import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.dto.OrderRequestDto;
 import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.exception.InvalidOrderRequestException;
 import jpa.jpashop.exception.NotEnoughStockException;
 import jpa.jpashop.repository.MemberRepository;
 import jpa.jpashop.repository.OrderRepository;
@@ -20,8 +27,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +48,9 @@ class OrderServiceTest {
     @Autowired
     OrderRepository orderRepository;
 
+    @Autowired
+    MemberService memberService;
+
     @Test
     @DisplayName("주문 성공")
     void order() {
@@ -53,8 +65,31 @@ class OrderServiceTest {
         assertThat(order.getStatus()).isEqualTo(OrderStatus.ORDER);
         assertThat(order.getOrderItems().size()).isEqualTo(2);
         assertThat(order.getTotalPrice()).isEqualTo(170000);
-        assertThat(book1.getStock()).isEqualTo(5);
-        assertThat(book2.getStock()).isEqualTo(10);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(5);
+        assertThat(em.find(Book.class, book2.getId()).getStock()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("같은 트랜잭션에서 수정한 상품을 주문해도 수정 내용과 차감된 재고가 모두 반영")
+    void order_afterItemEdit() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+        em.flush();
+        em.clear();
+
+        Book editing = em.find(Book.class, book1.getId());
+        editing.setName("BookA-2nd");
+        editing.setPrice(9000);
+        Long orderId = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 5, 10));
+        em.flush();
+        em.clear();
+
+        Book saved = em.find(Book.class, book1.getId());
+        assertThat(saved.getName()).isEqualTo("BookA-2nd");
+        assertThat(saved.getPrice()).isEqualTo(9000);
+        assertThat(saved.getStock()).isEqualTo(5);
+        assertThat(orderRepository.findById(orderId).get().getTotalPrice()).isEqualTo(165000);
     }
 
     @Test
@@ -69,6 +104,57 @@ class OrderServiceTest {
                 .isInstanceOf(NotEnoughStockException.class);
     }
 
+    @Test
+    @DisplayName("주문 실패 - 존재하지 않는 상품")
+    void order_itemNotFound() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+        List<OrderItemDto> dtoList = createOrderItemDtoList(book1, book2, 5, 10);
+        dtoList.get(1).setItemId(-1L);
+
+        assertThatThrownBy(() -> orderService.order(member.getId(), dtoList))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("주문 실패 - 주문 수량이 0이나 음수면 재고를 건드리지 않고 거절")
+    void order_invalidCount() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+
+        assertThatThrownBy(() -> orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, -5)))
+                .isInstanceOf(InvalidOrderRequestException.class);
+        assertThatThrownBy(() -> orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 0, 1)))
+                .isInstanceOf(InvalidOrderRequestException.class);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(10);
+        assertThat(em.find(Book.class, book2.getId()).getStock()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("주문 실패 - 주문 상품 목록이나 상품 id가 없으면 거절")
+    void order_missingLines() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+        List<OrderItemDto> nullLine = new ArrayList<>(createOrderItemDtoList(book1, book2, 1, 1));
+        nullLine.add(null);
+        List<OrderItemDto> nullItemId = createOrderItemDtoList(book1, book2, 1, 1);
+        nullItemId.get(0).setItemId(null);
+
+        assertThatThrownBy(() -> orderService.order(member.getId(), null))
+                .isInstanceOf(InvalidOrderRequestException.class);
+        assertThatThrownBy(() -> orderService.order(member.getId(), List.of()))
+                .isInstanceOf(InvalidOrderRequestException.class);
+        assertThatThrownBy(() -> orderService.order(member.getId(), nullLine))
+                .isInstanceOf(InvalidOrderRequestException.class);
+        assertThatThrownBy(() -> orderService.order(member.getId(), nullItemId))
+                .isInstanceOf(InvalidOrderRequestException.class);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(10);
+    }
+
     @Test
     @DisplayName("주문 취소")
     void cancelOrder() {
@@ -82,8 +168,22 @@ class OrderServiceTest {
 
         Order order = orderRepository.findById(orderId).get();
         assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCEL);
-        assertThat(book1.getStock()).isEqualTo(10);
-        assertThat(book2.getStock()).isEqualTo(20);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(10);
+        assertThat(em.find(Book.class, book2.getId()).getStock()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("주문 취소 실패 - 이미 취소된 주문은 재고를 다시 복구하지 않음")
+    void cancelOrder_alreadyCanceled() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+        Long orderId = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 5, 10));
+        orderService.cancelOrder(orderId);
+
+        assertThatThrownBy(() -> orderService.cancelOrder(orderId)).isInstanceOf(IllegalStateException.class);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(10);
+        assertThat(em.find(Book.class, book2.getId()).getStock()).isEqualTo(20);
     }
 
     @Test
@@ -109,6 +209,28 @@ class OrderServiceTest {
         assertThat(result.get(0).getTotalPrice()).isEqualTo(44000);
     }
 
+    @Test
+    @DisplayName("주문 내역 검색 - 이름 부분 일치")
+    void searchOrder_memberNamePartial() {
+        Member member1 = createSampleMember("Andy");
+        Member member2 = createSampleMember("Sandy Lee");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+
+        orderService.order(member1.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+        orderService.order(member2.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+
+        OrderSearchDto shortKeyword = new OrderSearchDto();
+        shortKeyword.setMemberName("nd");
+        assertThat(orderService.searchOrder(shortKeyword)).extracting(OrderDto::getMemberName)
+                .containsExactlyInAnyOrder("Andy", "Sandy Lee");
+
+        OrderSearchDto longKeyword = new OrderSearchDto();
+        longKeyword.setMemberName("ndy L");
+        assertThat(orderService.searchOrder(longKeyword)).extracting(OrderDto::getMemberName)
+                .containsExactly("Sandy Lee");
+    }
+
     @Test
     @DisplayName("주문 내역 검색 - 주문상태")
     void searchOrder_orderStatus() {
@@ -129,6 +251,36 @@ class OrderServiceTest {
         assertThat(result.size()).isEqualTo(0);
     }
 
+    @Test
+    @DisplayName("주문 내역 검색 - 주문 일시 범위 (from 포함, to 제외)")
+    void searchOrder_orderDateRange() {
+        Member member = createSampleMember("DateRangeBuyer");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+        Long oldOrderId = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+        Long newOrderId = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+
+        LocalDateTime lastMonth = LocalDateTime.now().minusMonths(1);
+        orderRepository.findById(oldOrderId).get().setOrderDate(lastMonth);
+        em.flush();
+
+        OrderSearchDto recent = new OrderSearchDto();
+        recent.setMemberName("DateRangeBuyer");
+        recent.setOrderDateFrom(LocalDateTime.now().minusDays(1));
+        assertThat(orderService.searchOrder(recent)).extracting(OrderDto::getOrderId).containsExactly(newOrderId);
+
+        OrderSearchDto old = new OrderSearchDto();
+        old.setMemberName("DateRangeBuyer");
+        old.setOrderDateFrom(lastMonth);
+        old.setOrderDateTo(lastMonth.plusSeconds(1));
+        assertThat(orderService.searchOrder(old)).extracting(OrderDto::getOrderId).containsExactly(oldOrderId);
+
+        OrderSearchDto excluded = new OrderSearchDto();
+        excluded.setMemberName("DateRangeBuyer");
+        excluded.setOrderDateTo(lastMonth);
+        assertThat(orderService.searchOrder(excluded)).isEmpty();
+    }
+
     @Test
     @DisplayName("주문 내역 검색 - 이름과 주문상태")
     void searchOrder() {
@@ -153,12 +305,207 @@ class OrderServiceTest {
         assertThat(result.get(0).getTotalPrice()).isEqualTo(22000);
     }
 
+    @Test
+    @DisplayName("주문 내역 검색 - 커서 페이징")
+    void searchOrder_cursor() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+
+        Long orderId1 = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+        Long orderId2 = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+        Long orderId3 = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setMemberName("Andy");
+        searchCond.setLimit(2);
+
+        List<OrderDto> firstPage = orderService.searchOrder(searchCond);
+        String nextCursor = OrderCursor.next(firstPage, searchCond.getLimit());
+        assertThat(firstPage).extracting(OrderDto::getOrderId).containsExactly(orderId3, orderId2);
+        assertThat(nextCursor).isNotNull();
+
+        searchCond.setCursor(nextCursor);
+        List<OrderDto> secondPage = orderService.searchOrder(searchCond);
+        assertThat(secondPage).extracting(OrderDto::getOrderId).containsExactly(orderId1);
+        assertThat(OrderCursor.next(secondPage, searchCond.getLimit())).isNull();
+    }
+
+    @Test
+    @DisplayName("주문 내보내기 - 청크 단위 스트리밍")
+    void exportOrders() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+
+        orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+        orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 2, 2));
+
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setMemberName("Andy");
+
+        List<OrderDto> exported = new ArrayList<>();
+        orderService.exportOrders(searchCond, exported::addAll);
+
+        assertThat(exported.size()).isEqualTo(2);
+        assertThat(exported).allSatisfy(o -> assertThat(o.getOrderItems().size()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("일괄 주문 - 재고 부족 주문만 실패")
+    void bulkOrder() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+
+        List<OrderRequestDto> requests = List.of(
+                new OrderRequestDto(member.getId(), createOrderItemDtoList(book1, book2, 5, 5)),
+                new OrderRequestDto(member.getId(), createOrderItemDtoList(book1, book2, 1, 1000)),
+                new OrderRequestDto(member.getId(), createOrderItemDtoList(book1, book2, 5, 5))
+        );
+
+        List<BulkOrderResultDto> results = orderService.bulkOrder(requests);
+
+        assertThat(results).extracting(BulkOrderResultDto::isSuccess).containsExactly(true, false, true);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(0);
+        assertThat(em.find(Book.class, book2.getId()).getStock()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("일괄 주문 - 형식이 잘못된 요청은 전체를 롤백하지 않고 해당 주문만 실패")
+    void bulkOrder_invalidRequest() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+
+        List<OrderRequestDto> requests = List.of(
+                new OrderRequestDto(null, createOrderItemDtoList(book1, book2, 1, 1)),
+                new OrderRequestDto(member.getId(), null),
+                new OrderRequestDto(member.getId(), createOrderItemDtoList(book1, book2, 1, -1)),
+                new OrderRequestDto(member.getId(), createOrderItemDtoList(book1, book2, 2, 2))
+        );
+
+        List<BulkOrderResultDto> results = orderService.bulkOrder(requests);
+
+        assertThat(results).extracting(BulkOrderResultDto::isSuccess).containsExactly(false, false, false, true);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(8);
+        assertThat(em.find(Book.class, book2.getId()).getStock()).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("일괄 취소 - 배송 완료/이미 취소/없는 주문은 건너뛰고 나머지만 취소, 재고는 상품별 합산 복구")
+    void cancelOrders() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+        Long first = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 2));
+        Long second = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 3, 4));
+        Long delivered = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+        Long canceled = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+        orderRepository.findById(delivered).get().getDelivery().setStatus(DeliveryStatus.COMPLETE);
+        orderService.cancelOrder(canceled);
+
+        BulkCancelResultDto result = orderService.cancelOrders(List.of(first, second, delivered, canceled, -1L));
+
+        assertThat(result.getCanceledOrderIds()).containsExactly(first, second);
+        assertThat(result.getSkipped())
+                .extracting(BulkCancelResultDto.Skipped::getOrderId, BulkCancelResultDto.Skipped::getReason)
+                .containsExactly(
+                        tuple(delivered, BulkCancelResultDto.SkipReason.DELIVERY_COMPLETE),
+                        tuple(canceled, BulkCancelResultDto.SkipReason.ALREADY_CANCELED),
+                        tuple(-1L, BulkCancelResultDto.SkipReason.NOT_FOUND));
+
+        em.clear();
+        assertThat(orderRepository.findById(first).get().getStatus()).isEqualTo(OrderStatus.CANCEL);
+        assertThat(orderRepository.findById(second).get().getStatus()).isEqualTo(OrderStatus.CANCEL);
+        assertThat(orderRepository.findById(delivered).get().getStatus()).isEqualTo(OrderStatus.ORDER);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(9);
+        assertThat(em.find(Book.class, book2.getId()).getStock()).isEqualTo(19);
+    }
+
+    @Test
+    @DisplayName("일괄 취소 - 검색 조건(회원 이름)에 해당하는 주문만 취소")
+    void cancelOrders_searchCond() {
+        Member andy = createSampleMember("Andy");
+        Member brian = createSampleMember("Brian");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+        Long andyOrder = orderService.order(andy.getId(), createOrderItemDtoList(book1, book2, 2, 2));
+        Long brianOrder = orderService.order(brian.getId(), createOrderItemDtoList(book1, book2, 3, 3));
+
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setMemberName("Andy");
+        BulkCancelResultDto result = orderService.cancelOrders(searchCond);
+
+        assertThat(result.getCanceledOrderIds()).containsExactly(andyOrder);
+        assertThat(result.getSkipped()).isEmpty();
+
+        em.clear();
+        assertThat(orderRepository.findById(brianOrder).get().getStatus()).isEqualTo(OrderStatus.ORDER);
+        assertThat(em.find(Book.class, book1.getId()).getStock()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("일괄 취소 - 조건이 없으면 실패")
+    void cancelOrders_noCondition() {
+        assertThatThrownBy(() -> orderService.cancelOrders(new OrderSearchDto()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("일괄 취소 - 한쪽만 열린 주문 일시 범위나 너무 긴 범위는 조건으로 인정하지 않음")
+    void cancelOrders_unboundedPeriod() {
+        LocalDateTime now = LocalDateTime.now();
+
+        OrderSearchDto toOnly = new OrderSearchDto();
+        toOnly.setOrderDateTo(now);
+        OrderSearchDto fromOnly = new OrderSearchDto();
+        fromOnly.setOrderDateFrom(now.minusYears(10));
+        OrderSearchDto tooLong = new OrderSearchDto();
+        tooLong.setOrderDateFrom(now.minusDays(32));
+        tooLong.setOrderDateTo(now);
+        OrderSearchDto reversed = new OrderSearchDto();
+        reversed.setOrderDateFrom(now);
+        reversed.setOrderDateTo(now.minusDays(1));
+
+        for (OrderSearchDto searchCond : List.of(toOnly, fromOnly, tooLong, reversed)) {
+            assertThatThrownBy(() -> orderService.cancelOrders(searchCond))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("일괄 취소 - 양쪽이 닫힌 짧은 주문 일시 범위는 조건으로 인정")
+    void cancelOrders_boundedPeriod() {
+        Member member = createSampleMember("Andy");
+        Book book1 = createSampleBook("BookA", 10000, 10);
+        Book book2 = createSampleBook("BookB", 12000, 20);
+        Long orderId = orderService.order(member.getId(), createOrderItemDtoList(book1, book2, 1, 1));
+
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setOrderDateFrom(LocalDateTime.now().minusMinutes(1));
+        searchCond.setOrderDateTo(LocalDateTime.now().plusMinutes(1));
+
+        assertThat(orderService.cancelOrders(searchCond).getCanceledOrderIds()).contains(orderId);
+    }
+
+    @Test
+    @DisplayName("회원 주문 이력 - 조회 건수가 1 ~ MAX_HISTORY_PAGE_SIZE를 벗어나면 예외")
+    void findOrderHistory_invalidLimit() {
+        Member member = createSampleMember("HistoryLimit");
+
+        assertThatThrownBy(() -> orderService.findOrderHistory(member.getId(), null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> orderService.findOrderHistory(member.getId(), null, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> orderService.findOrderHistory(member.getId(), null, OrderService.MAX_HISTORY_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // 이름 검색 색인까지 만들어지도록 회원 가입 로직을 거쳐서 생성
     private Member createSampleMember(String name) {
-        Member member = new Member();
-        member.setName(name);
-        member.setAddress(new Address("Seoul", "Teheran-ro", "12345"));
-        em.persist(member);
-        return member;
+        Long memberId = memberService.join(new MemberDto(name, new Address("Seoul", "Teheran-ro", "12345")));
+        return em.find(Member.class, memberId);
     }
 
     private Book createSampleBook(String name, int price, int stock) {
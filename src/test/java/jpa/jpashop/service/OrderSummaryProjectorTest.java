@@ -0,0 +1,153 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.Address;
+import jpa.jpashop.domain.OrderStatus;
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.dto.OrderSummaryDto;
+import jpa.jpashop.repository.OrderSummaryRepository;
+import jpa.jpashop.support.ShopFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static jpa.jpashop.support.ShopFixture.orderItem;
+import static org.assertj.core.api.Assertions.*;
+
+// 요약 행은 커밋 이후에 갱신되므로 @Transactional을 붙이지 않고, 다른 테스트와 섞이지 않게 별도 DB를 사용
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order-summary;LOCK_TIMEOUT=10000")
+class OrderSummaryProjectorTest {
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    ShopFixture shopFixture;
+
+    @Autowired
+    OrderSummaryProjector orderSummaryProjector;
+
+    @Autowired
+    OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("주문/취소가 커밋되면 요약 행이 생성/갱신되고, 회원 이름으로 검색됨")
+    void projectAfterCommit() {
+        Long memberId = shopFixture.createMember("SummaryBuyer");
+        Book bookA = shopFixture.createBook("SummaryBookA", 10000, 100);
+        Book bookB = shopFixture.createBook("SummaryBookB", 20000, 100);
+
+        Long orderId = orderService.order(memberId, List.of(orderItem(bookA, 1), orderItem(bookB, 2)));
+
+        OrderSummaryDto summary = findSummary("SummaryBuyer", orderId);
+        assertThat(summary.getTotalPrice()).isEqualTo(50000);
+        assertThat(summary.getItemCount()).isEqualTo(2);
+        assertThat(summary.getStatus()).isEqualTo(OrderStatus.ORDER);
+        assertThat(summary.getAddress().getCity()).isEqualTo("Seoul");
+
+        orderService.cancelOrder(orderId);
+
+        assertThat(findSummary("SummaryBuyer", orderId).getStatus()).isEqualTo(OrderStatus.CANCEL);
+    }
+
+    @Test
+    @DisplayName("재구축 - 요약 테이블이 비어 있어도 원본 주문에서 다시 만듦")
+    void rebuild() {
+        Long memberId = memberService.join(new MemberDto("RebuildBuyer", new Address("Busan", "Haeundae-ro", "54321")));
+        Book book = shopFixture.createBook("RebuildBook", 15000, 100);
+        Long orderId = orderService.order(memberId, List.of(orderItem(book, 3)));
+
+        jdbcTemplate.update("delete from order_summary");
+        long orders = jdbcTemplate.queryForObject("select count(*) from orders", Long.class);
+
+        long rebuilt = orderSummaryProjector.rebuild();
+
+        assertThat(rebuilt).isEqualTo(orders);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_summary", Long.class)).isEqualTo(orders);
+        assertThat(findSummary("RebuildBuyer", orderId).getTotalPrice()).isEqualTo(45000);
+    }
+
+    @Test
+    @DisplayName("회원 이름이 바뀌면 커밋 이후 그 회원의 요약 행도 새 이름으로 바뀌고, 새 이름으로 검색됨")
+    void projectMemberRename() {
+        Address address = new Address("Seoul", "Teheran-ro", "12345");
+        Long memberId = memberService.join(new MemberDto("RenameBefore", address));
+        Book book = shopFixture.createBook("RenameBook", 10000, 100);
+        Long orderId = orderService.order(memberId, List.of(orderItem(book, 1)));
+
+        memberService.updateMember(memberId, new MemberDto("RenameAfterward", address));
+
+        assertThat(findSummary("RenameAfterward", orderId).getMemberName()).isEqualTo("RenameAfterward");
+        assertThat(jdbcTemplate.queryForObject("select member_name from order_summary where order_id = ?", String.class, orderId))
+                .isEqualTo("RenameAfterward");
+    }
+
+    @Test
+    @DisplayName("같은 주문을 동시에 갱신해도 PK 위반 없이 한 행만 남음")
+    void refreshConcurrently() throws InterruptedException {
+        Long memberId = shopFixture.createMember("ConcurrentSummaryBuyer");
+        Book book = shopFixture.createBook("ConcurrentSummaryBook", 10000, 100);
+        Long orderId = orderService.order(memberId, List.of(orderItem(book, 2)));
+        jdbcTemplate.update("delete from order_summary where order_id = ?", orderId);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        AtomicInteger failed = new AtomicInteger();
+
+        for (int t = 0; t < threadCount; t++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status -> orderSummaryRepository.refresh(List.of(orderId)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        done.await();
+        executor.shutdown();
+
+        assertThat(failed.get()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_summary where order_id = ?", Long.class, orderId)).isEqualTo(1);
+        assertThat(findSummary("ConcurrentSummaryBuyer", orderId).getTotalPrice()).isEqualTo(20000);
+    }
+
+    private OrderSummaryDto findSummary(String memberName, Long orderId) {
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setMemberName(memberName);
+
+        return orderService.searchOrderSummaries(searchCond).stream()
+                .filter(s -> s.getOrderId().equals(orderId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
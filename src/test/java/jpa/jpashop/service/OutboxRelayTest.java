@@ -0,0 +1,144 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.OutboxMessage;
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.repository.OutboxRepository;
+import jpa.jpashop.support.ShopFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static jpa.jpashop.support.ShopFixture.orderItems;
+import static org.assertj.core.api.Assertions.*;
+
+// 폴링 주기를 길게 잡아서 백그라운드 전달 대신 relayBatch()를 직접 호출해 검증
+@SpringBootTest(properties = {
+        "jpashop.outbox.relay.enabled=true",
+        "jpashop.outbox.relay.batch-size=2",
+        "jpashop.outbox.relay.poll-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:outbox;LOCK_TIMEOUT=10000"
+})
+class OutboxRelayTest {
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    OutboxRepository outboxRepository;
+
+    @Autowired
+    RecordingOutboxSink recordingOutboxSink;
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    ShopFixture shopFixture;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class SinkConfig {
+        @Bean
+        @Primary
+        RecordingOutboxSink recordingOutboxSink() {
+            return new RecordingOutboxSink();
+        }
+    }
+
+    static class RecordingOutboxSink implements OutboxSink {
+        final List<OutboxMessage> published = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void publish(List<OutboxMessage> messages) {
+            published.addAll(messages);
+        }
+    }
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("delete from outbox_message");
+        recordingOutboxSink.published.clear();
+    }
+
+    @Test
+    @DisplayName("주문/취소 메시지가 주문과 함께 커밋되고, 릴레이가 배치 단위로 전달한 뒤 삭제")
+    void relay() {
+        Long orderId = placeOrders("OutboxBuyer", 3).get(0);
+        orderService.cancelOrder(orderId);
+
+        assertThat(outboxRelay.relayBatch()).isEqualTo(2);
+        assertThat(outboxRelay.relayBatch()).isEqualTo(2);
+        assertThat(outboxRelay.relayBatch()).isZero();
+
+        assertThat(recordingOutboxSink.published)
+                .extracting(OutboxMessage::getEventType)
+                .containsExactly("ORDER_CREATED", "ORDER_CREATED", "ORDER_CREATED", "ORDER_CANCELED");
+        assertThat(recordingOutboxSink.published.get(3).getAggregateId()).isEqualTo(orderId);
+        assertThat(recordingOutboxSink.published.get(0).getPayload()).contains("\"version\":1");
+        assertThat(recordingOutboxSink.published.get(3).getPayload()).contains("\"version\":2");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from outbox_message", Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("주문 상품이 많아 payload가 길어도 잘리지 않고 전달")
+    void relayLargePayload() {
+        String payload = "x".repeat(20_000);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxRepository.append(new OutboxMessage(OrderEventOutbox.AGGREGATE_TYPE, 1L, OrderEventOutbox.ORDER_CREATED, payload)));
+
+        assertThat(outboxRelay.relayBatch()).isEqualTo(1);
+        assertThat(recordingOutboxSink.published.get(0).getPayload()).isEqualTo(payload);
+    }
+
+    @Test
+    @DisplayName("다른 트랜잭션이 선점한 메시지는 건너뛰고 나머지를 선점 (SKIP LOCKED)")
+    void claimSkipsLockedRows() {
+        placeOrders("SkipLockedBuyer", 4);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<List<Long>> claimed = transactionTemplate.execute(status -> {
+            List<Long> first = ids(outboxRepository.claim(2));
+            List<Long> second = CompletableFuture
+                    .supplyAsync(() -> transactionTemplate.execute(s -> ids(outboxRepository.claim(10))))
+                    .join();
+            return List.of(first, second);
+        });
+
+        assertThat(claimed.get(0)).hasSize(2);
+        assertThat(claimed.get(1)).hasSize(2).doesNotContainAnyElementsOf(claimed.get(0));
+    }
+
+    private List<Long> placeOrders(String memberName, int count) {
+        Long memberId = shopFixture.createMember(memberName);
+        Book book = shopFixture.createBook(memberName + "Book", 10000, 100);
+
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orderIds.add(orderService.order(memberId, orderItems(book, 1)));
+        }
+        return orderIds;
+    }
+
+    private List<Long> ids(List<OutboxMessage> messages) {
+        return messages.stream().map(OutboxMessage::getId).collect(Collectors.toList());
+    }
+}
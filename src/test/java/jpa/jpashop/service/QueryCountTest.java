@@ -0,0 +1,190 @@
+package jpa.jpashop.service;
+
+import jpa.jpashop.domain.Address;
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.dto.OrderCursor;
+import jpa.jpashop.dto.OrderDto;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.dto.OrderRequestDto;
+import jpa.jpashop.dto.OrderSearchDto;
+import jpa.jpashop.repository.OrderRepository;
+import jpa.jpashop.support.QueryCounter;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 데이터 건수가 늘어나도 실행되는 SQL 수가 고정되어 있는지 확인 (지연 로딩 루프로 인한 N+1 회귀 방지)
+@SpringBootTest
+@Transactional
+class QueryCountTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Test
+    @DisplayName("주문 검색 - 주문 조회 1회 + 주문 상품 조회 1회")
+    void searchOrder() {
+        createSampleOrders("Andy", 5, 10);
+
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setMemberName("Andy");
+
+        QueryCounter.count(() -> orderService.searchOrder(searchCond))
+                .assertSelectsAtMost(2)
+                .assertNoNPlusOne();
+    }
+
+    @Test
+    @DisplayName("주문 검색 (엔티티 조회) - 컬렉션과 상품은 batch size로 묶어서 조회")
+    void searchOrder_entity() {
+        createSampleOrders("Andy", 5, 10);
+
+        OrderSearchDto searchCond = new OrderSearchDto();
+        searchCond.setMemberName("Andy");
+
+        QueryCounter.count(() -> orderRepository.findBySearchCond(searchCond)
+                        .stream()
+                        .map(OrderDto::new)
+                        .collect(Collectors.toList()))
+                .assertSelectsAtMost(3)
+                .assertNoNPlusOne();
+    }
+
+    @Test
+    @DisplayName("주문 - 장바구니 크기와 무관하게 상품은 한 번에 조회, id는 시퀀스별로 많아야 한 번 채번")
+    void order() {
+        Long memberId = memberService.join(new MemberDto("Andy", new Address("Seoul", "Teheran-ro", "12345")));
+        List<Book> books = createSampleBooks(10);
+        flushAndClear();
+
+        // 주문, 배송, 주문상품 10건, 아웃박스 메시지의 persist가 있지만 시퀀스는 orders_seq, delivery_seq, order_item_seq, outbox_message_seq 당 최대 한 번
+        QueryCounter.count(() -> orderService.order(memberId, createCart(books)))
+                .assertSelectsAtMost(2)
+                .assertSequenceCallsAtMost(4)
+                .assertNoNPlusOne();
+    }
+
+    @Test
+    @DisplayName("일괄 주문 - 주문 수와 무관하게 테이블별 INSERT는 JDBC batch 하나로 묶임")
+    void bulkOrderInsertBatching() {
+        Long memberId = memberService.join(new MemberDto("Andy", new Address("Seoul", "Teheran-ro", "12345")));
+        List<Book> books = createSampleBooks(2);
+        flushAndClear();
+
+        // 주문 20건 x 주문 상품 2줄: batch가 없으면 orders 20번, order_item 40번, delivery 20번 INSERT
+        List<OrderRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(new OrderRequestDto(memberId, createCart(books)));
+        }
+
+        QueryCounter.count(() -> {
+                    orderService.bulkOrder(requests);
+                    em.flush();
+                })
+                .assertStatementsAtMost("insert into orders ", 1)
+                .assertStatementsAtMost("insert into order_item ", 1)
+                .assertStatementsAtMost("insert into delivery ", 1)
+                .assertStatementsAtMost("insert into outbox_message ", 1);
+    }
+
+    @Test
+    @DisplayName("주문 - 회원의 기존 주문 이력을 로딩하지 않음")
+    void order_doesNotLoadOrderHistory() {
+        createSampleOrders("Andy", 20, 1);
+        Long memberId = em.createQuery("select m.id from Member m where m.name = :name", Long.class)
+                .setParameter("name", "Andy")
+                .getSingleResult();
+        List<Book> books = createSampleBooks(1);
+        flushAndClear();
+
+        QueryCounter.count(() -> orderService.order(memberId, createCart(books)))
+                .assertNoSelectFrom("orders");
+    }
+
+    @Test
+    @DisplayName("회원 주문 이력 - 페이지 크기만큼만 조회")
+    void findOrderHistory() {
+        createSampleOrders("Andy", 20, 2);
+        Long memberId = em.createQuery("select m.id from Member m where m.name = :name", Long.class)
+                .setParameter("name", "Andy")
+                .getSingleResult();
+        flushAndClear();
+
+        List<OrderDto> firstPage = orderService.findOrderHistory(memberId, null, 5);
+        String nextCursor = OrderCursor.next(firstPage, 5);
+
+        QueryCounter.count(() -> assertThat(orderService.findOrderHistory(memberId, nextCursor, 5)).hasSize(5))
+                .assertSelectsAtMost(2);
+    }
+
+    @Test
+    @DisplayName("회원 목록 조회 - SELECT 1회, 엔티티를 영속성 컨텍스트에 올리지 않음")
+    void findMembers() {
+        for (int i = 0; i < 10; i++) {
+            memberService.join(new MemberDto("Member" + i, new Address("Seoul", "Teheran-ro", "12345")));
+        }
+        flushAndClear();
+
+        QueryCounter.count(() -> memberService.findMembers(null, 5))
+                .assertSelectsAtMost(1);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    private void createSampleOrders(String memberName, int orderCount, int cartSize) {
+        Long memberId = memberService.join(new MemberDto(memberName, new Address("Seoul", "Teheran-ro", "12345")));
+        List<Book> books = createSampleBooks(cartSize);
+        for (int i = 0; i < orderCount; i++) {
+            orderService.order(memberId, createCart(books));
+        }
+        flushAndClear();
+    }
+
+    private List<Book> createSampleBooks(int count) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.setName("Book" + i);
+            book.setPrice(10000);
+            book.setStock(100);
+            em.persist(book);
+            books.add(book);
+        }
+        return books;
+    }
+
+    private List<OrderItemDto> createCart(List<Book> books) {
+        List<OrderItemDto> cart = new ArrayList<>();
+        for (Book book : books) {
+            OrderItemDto dto = new OrderItemDto();
+            dto.setItemId(book.getId());
+            dto.setCount(1);
+            cart.add(dto);
+        }
+        return cart;
+    }
+
+    private void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+}
@@ -0,0 +1,111 @@
+package jpa.jpashop.support;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class QueryCount {
+
+    // 같은 SELECT가 이 횟수 이상 반복되면 지연 로딩 루프(N+1)로 의심
+    private static final int N_PLUS_ONE_THRESHOLD = 3;
+
+    private final List<String> statements;
+
+    QueryCount(List<String> statements) {
+        this.statements = List.copyOf(statements);
+    }
+
+    public List<String> statements() {
+        return statements;
+    }
+
+    public int total() {
+        return statements.size();
+    }
+
+    public int selects() {
+        return (int) statements.stream().filter(QueryCount::isSelect).count();
+    }
+
+    public int sequenceCalls() {
+        return (int) statements.stream().filter(QueryCount::isSequenceCall).count();
+    }
+
+    // 특정 문장으로 시작하는 SQL 수 (예: "insert into orders ")
+    // JDBC batch로 묶인 INSERT/UPDATE는 PreparedStatement를 한 번만 만들므로 batch 하나당 한 번으로 셈
+    public int statementsStartingWith(String prefix) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        return (int) statements.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith(lowerPrefix))
+                .count();
+    }
+
+    // 파라미터만 다른 같은 SELECT가 여러 번 실행된 경우 (PreparedStatement SQL이 같음)
+    public Map<String, Long> repeatedSelects() {
+        return statements.stream()
+                .filter(QueryCount::isSelect)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .entrySet()
+                .stream()
+                .filter(e -> e.getValue() >= N_PLUS_ONE_THRESHOLD)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    public QueryCount assertSelectsAtMost(int max) {
+        assertThat(selects())
+                .withFailMessage("SELECT %d회 실행 (최대 %d회 허용)%n%s", selects(), max, String.join("\n", statements))
+                .isLessThanOrEqualTo(max);
+        return this;
+    }
+
+    // 특정 테이블을 조회하는 SELECT가 한 번도 실행되지 않았는지 확인
+    public QueryCount assertNoSelectFrom(String table) {
+        String fromClause = "from " + table.toLowerCase(Locale.ROOT) + " ";
+        List<String> matched = statements.stream()
+                .filter(QueryCount::isSelect)
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains(fromClause))
+                .collect(Collectors.toList());
+
+        assertThat(matched)
+                .withFailMessage("%s 테이블 조회가 실행됨%n%s", table, String.join("\n", matched))
+                .isEmpty();
+        return this;
+    }
+
+    // 시퀀스는 pooled-lo로 여러 id를 한 번에 확보하므로 persist 수만큼 호출되면 안 됨
+    public QueryCount assertSequenceCallsAtMost(int max) {
+        assertThat(sequenceCalls())
+                .withFailMessage("시퀀스 %d회 호출 (최대 %d회 허용)%n%s", sequenceCalls(), max, String.join("\n", statements))
+                .isLessThanOrEqualTo(max);
+        return this;
+    }
+
+    public QueryCount assertStatementsAtMost(String prefix, int max) {
+        int count = statementsStartingWith(prefix);
+        assertThat(count)
+                .withFailMessage("'%s' %d회 실행 (최대 %d회 허용)%n%s", prefix, count, max, String.join("\n", statements))
+                .isLessThanOrEqualTo(max);
+        return this;
+    }
+
+    public QueryCount assertNoNPlusOne() {
+        assertThat(repeatedSelects())
+                .withFailMessage("N+1 의심: 같은 SELECT가 반복 실행됨%n%s", repeatedSelects())
+                .isEmpty();
+        return this;
+    }
+
+    // 시퀀스 채번("select next value for ...")은 조회가 아니므로 제외
+    private static boolean isSelect(String sql) {
+        return sql.trim().toLowerCase(Locale.ROOT).startsWith("select") && !isSequenceCall(sql);
+    }
+
+    private static boolean isSequenceCall(String sql) {
+        return sql.toLowerCase(Locale.ROOT).contains("next value for");
+    }
+
+}
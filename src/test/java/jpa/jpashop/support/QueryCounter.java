@@ -0,0 +1,38 @@
+package jpa.jpashop.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+테스트용 SQL 카운터
+Hibernate가 JDBC로 보내기 직전의 모든 SQL을 가로채서, count()로 감싼 블록 안에서 실행된 문장만 현재 스레드에 기록함
+test/resources/application.yml 의 hibernate.session_factory.statement_inspector 로 등록
+SQL 문장을 준비할 때마다 기록하므로 JDBC batch는 batch 하나당 한 번 (실행 횟수는 운영용 SqlStatementCounter가 DataSource에서 셈)
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static QueryCount count(Runnable block) {
+        List<String> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            block.run();
+        } finally {
+            RECORDING.remove();
+        }
+        return new QueryCount(statements);
+    }
+
+}
@@ -0,0 +1,83 @@
+package jpa.jpashop.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+테스트용 실행 계획 검사 (H2 EXPLAIN)
+QueryCounter로 기록한 SELECT를 EXPLAIN 해서 지정한 테이블을 인덱스 없이 전체 스캔("PUBLIC.<TABLE>.tableScan")하는지 확인
+파라미터 값은 실행 계획 선택에 영향을 주지 않으므로 타입에 맞는 임의 값으로 채움
+ */
+public final class QueryPlans {
+
+    private QueryPlans() {
+    }
+
+    public static String explain(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("explain " + sql);
+            ParameterMetaData metaData = ps.getParameterMetaData();
+            for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                bindSample(ps, i, metaData.getParameterType(i));
+            }
+            return ps;
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        });
+    }
+
+    public static void assertNoTableScan(JdbcTemplate jdbcTemplate, QueryCount queryCount, String... tables) {
+        List<String> violations = new ArrayList<>();
+
+        for (String sql : selects(queryCount)) {
+            String plan = explain(jdbcTemplate, sql);
+            for (String table : tables) {
+                if (plan.contains("PUBLIC." + table.toUpperCase(Locale.ROOT) + ".tableScan")) {
+                    violations.add(table + " 전체 스캔\n" + plan);
+                }
+            }
+        }
+
+        assertThat(violations)
+                .withFailMessage("인덱스를 타지 않는 검색 쿼리가 있음%n%s", String.join("\n", violations))
+                .isEmpty();
+    }
+
+    private static List<String> selects(QueryCount queryCount) {
+        return queryCount.statements().stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .filter(sql -> !sql.toLowerCase(Locale.ROOT).contains("next value for"))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static void bindSample(PreparedStatement ps, int index, int sqlType) throws SQLException {
+        switch (sqlType) {
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+            case Types.DATE:
+                ps.setTimestamp(index, Timestamp.valueOf(LocalDateTime.now()));
+                break;
+            default:
+                // 숫자, 문자열, enum 컬럼과 limit/offset 모두 H2가 알아서 변환
+                ps.setString(index, "1");
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package jpa.jpashop.support;
+
+import jpa.jpashop.domain.Address;
+import jpa.jpashop.domain.item.Book;
+import jpa.jpashop.domain.item.Item;
+import jpa.jpashop.dto.MemberDto;
+import jpa.jpashop.dto.OrderItemDto;
+import jpa.jpashop.service.ItemService;
+import jpa.jpashop.service.MemberService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+테스트 공통 데이터 생성
+회원과 상품은 서비스 계층을 거쳐서 만들므로 이름 검색 색인, 상품 변경 이벤트까지 실제 요청과 같게 처리됨
+테스트 클래스가 아니라 컴포넌트로 스캔되므로 어떤 테스트 컨텍스트에서든 @Autowired로 주입받아 사용
+ */
+@Component
+public class ShopFixture {
+
+    private final MemberService memberService;
+    private final ItemService itemService;
+
+    public ShopFixture(MemberService memberService, ItemService itemService) {
+        this.memberService = memberService;
+        this.itemService = itemService;
+    }
+
+    public Long createMember(String name) {
+        return memberService.join(new MemberDto(name, new Address("Seoul", "Teheran-ro", "12345")));
+    }
+
+    public Book createBook(String name, int price, int stock) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStock(stock);
+        itemService.saveItem(book);
+        return book;
+    }
+
+    public static OrderItemDto orderItem(Item item, int count) {
+        OrderItemDto orderItemDto = new OrderItemDto();
+        orderItemDto.setItemId(item.getId());
+        orderItemDto.setCount(count);
+        return orderItemDto;
+    }
+
+    public static List<OrderItemDto> orderItems(Item item, int count) {
+        return List.of(orderItem(item, count));
+    }
+
+}